@@ -1,23 +1,39 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/Clnt")
 @Tag(name = "Clnt Controller", description = "客戶資料檔 API 接口")
 public class ClntController {
+    /** 大量資料 每段的筆數，每段 一個交易 */
+    private static final int CHUNK_SIZE = 10000;
+    /** 分頁查詢 每頁 最多的筆數 */
+    private static final int PAGE_MAX_SIZE = 1000;
+    private static final String NDJSON = "application/x-ndjson";
+
     private Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
     private ClntService clntService;
     @Autowired
-    private ClntRepository clntRepository;
+    private ObjectMapper objectMapper;
 
     @Operation(summary = "根據主鍵 新增或更新 Clnt",
                description = "根據主鍵，若有資料則更新，無資料則新增",
@@ -37,13 +53,127 @@ public class ClntController {
         return ResponseEntity.ok(savedEntityList);
     }
 
+    @Operation(summary = "串流 根據主鍵 大量 新增或更新 Clnt",
+               description = "與 saveAll 相同，以 JSON 陣列 或 NDJSON 傳入，邊讀取 邊以 JDBC batch 新增或更新，不會 全部載入記憶體，回傳 處理筆數",
+               operationId = "saveAllStream")
+    @PostMapping(value = "/saveAllStream", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<Integer> saveAllStream(InputStream body) throws IOException {
+        // 以 JsonParser 逐筆 讀取，每 CHUNK_SIZE 筆 寫入一次 (每段 一個交易)，記憶體 只保留 一段
+        int count = 0;
+        List<Clnt> chunk = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                chunk.add(objectMapper.readValue(parser, Clnt.class));
+                if (chunk.size() == CHUNK_SIZE) {
+                    count += clntService.batchUpsert(chunk);
+                    chunk.clear();
+                }
+                token = parser.nextToken();
+            }
+            if (token != (array ? JsonToken.END_ARRAY : null)) {
+                throw new IllegalArgumentException("saveAllStream 需傳入 Clnt 的 JSON 陣列 或 NDJSON：" + token);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            count += clntService.batchUpsert(chunk);
+        }
+        return ResponseEntity.ok(count);
+    }
+
+    @Operation(summary = "批次新增 Clnt",
+               description = "以 JDBC batch 新增 Clnt 資料，大量資料 分段處理，回傳 處理筆數",
+               operationId = "batchInsert")
+    @PostMapping("/batchInsert")
+    public ResponseEntity<Integer> batchInsert(@RequestBody List<Clnt> entityList) {
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += CHUNK_SIZE) {
+            count += clntService.batchInsert(entityList.subList(from, Math.min(from + CHUNK_SIZE, entityList.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+
+    @Operation(summary = "根據主鍵 批次 新增或更新 Clnt",
+               description = "以 JDBC batch 新增或更新 Clnt 資料，大量資料 分段處理，回傳 處理筆數",
+               operationId = "batchUpsert")
+    @PostMapping("/batchUpsert")
+    public ResponseEntity<Integer> batchUpsert(@RequestBody List<Clnt> entityList) {
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += CHUNK_SIZE) {
+            count += clntService.batchUpsert(entityList.subList(from, Math.min(from + CHUNK_SIZE, entityList.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+
     @Operation(summary = "單筆更新 Clnt",
-               description = "單筆新增 Clnt 資料",
+               description = "單筆更新 Clnt 資料，變更前的資料 與 資料庫 不符者 不會更新，回傳 更新筆數",
                operationId = "update")
     @PostMapping("/update")
-    public ResponseEntity<Void> update(@RequestBody Clnt.ClntUpdate entityUpdate) {
-        clntRepository.update(entityUpdate.getClntOri(), entityUpdate.getClntNew());
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Integer> update(@RequestBody Clnt.ClntUpdate entityUpdate) {
+        return ResponseEntity.ok(clntService.update(entityUpdate.getClntOri(), entityUpdate.getClntNew()));
+    }
+
+    @Operation(summary = "部分更新 Clnt",
+               description = "比對 變更前 與 變更後，只更新 有變更的欄位 (主鍵 不會變更)，有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新，回傳 更新筆數 (無變更 為 0)",
+               operationId = "patch")
+    @PostMapping("/patch")
+    public ResponseEntity<Integer> patch(@RequestBody Clnt.ClntUpdate entityUpdate) {
+        return ResponseEntity.ok(clntService.patch(entityUpdate.getClntOri(), entityUpdate.getClntNew()));
+    }
+
+    @Operation(summary = "批次更新 Clnt",
+               description = "以 JDBC batch 更新 Clnt 資料，變更前的資料 與 資料庫 不符者 不會更新，回傳 實際更新筆數",
+               operationId = "updateAll")
+    @PostMapping("/updateAll")
+    public ResponseEntity<Integer> updateAll(@RequestBody List<Clnt.ClntUpdate> updateList) {
+        int count = 0;
+        for (int from = 0; from < updateList.size(); from += CHUNK_SIZE) {
+            count += clntService.updateAll(updateList.subList(from, Math.min(from + CHUNK_SIZE, updateList.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+
+    @Operation(summary = "分頁查詢 Clnt",
+               description = "依主鍵排序，傳入 上一頁 最後一筆的主鍵 取得 下一頁，第一頁 不需傳入主鍵",
+               operationId = "page")
+    @GetMapping("/page")
+    public ResponseEntity<List<Clnt>> page(@RequestParam(required = false) String afterKey, @RequestParam(defaultValue = "100") int limit) {
+        String key = afterKey;
+        List<Clnt> entityList = clntService.findPage(key, Math.max(1, Math.min(limit, PAGE_MAX_SIZE)));
+        return ResponseEntity.ok(entityList);
+    }
+
+    @Operation(summary = "分頁查詢 ClntName",
+               description = "只查詢 ClntName 的欄位，依主鍵排序，傳入 上一頁 最後一筆的主鍵 取得 下一頁",
+               operationId = "pageClntName")
+    @GetMapping("/page/clntName")
+    public ResponseEntity<List<ClntName>> pageClntName(@RequestParam(required = false) String afterKey, @RequestParam(defaultValue = "100") int limit) {
+        String key = afterKey;
+        List<ClntName> dtoList = clntService.findClntNamePage(key, Math.max(1, Math.min(limit, PAGE_MAX_SIZE)));
+        return ResponseEntity.ok(dtoList);
+    }
+
+    @Operation(summary = "串流輸出 全部 Clnt",
+               description = "以 NDJSON (每行一筆 JSON) 逐筆輸出 全部 Clnt 資料，不會 全部載入記憶體",
+               operationId = "stream")
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                clntService.streamAll(entity -> {
+                    try {
+                        writer.write(entity);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @Operation(summary = "根據主鍵 查詢 Clnt",
@@ -58,6 +188,19 @@ public class ClntController {
         return ResponseEntity.ok(entity);  // 回傳 HTTP 200 OK 和資料
     }
 
+    @Operation(summary = "根據主鍵 批次查詢 Clnt",
+               description = "根據主鍵清單 查詢 Clnt 資料，分段查詢，查無資料的主鍵 不會出現在結果中",
+               operationId = "findAllByIds")
+    @PostMapping("/findAllByIds")
+    public ResponseEntity<List<Clnt>> findAllByIds(@RequestBody List<Clnt.ClntKey> idList) {
+        List<String> ids = new ArrayList<>(idList.size());
+        for (Clnt.ClntKey id : idList) {
+            ids.add(id.getClientId());
+        }
+        List<Clnt> entityList = clntService.findAllByIds(ids);
+        return ResponseEntity.ok(entityList);
+    }
+
     @Operation(summary = "根據主鍵 刪除 Clnt 資料",
                description = "根據主鍵刪除 Clnt 資料",
                operationId = "deleteById")
@@ -66,4 +209,20 @@ public class ClntController {
         clntService.deleteById(id.getClientId());
         return ResponseEntity.ok().build();
     }
+
+    @Operation(summary = "根據主鍵 批次刪除 Clnt 資料",
+               description = "根據主鍵清單 刪除 Clnt 資料，大量資料 分段處理，回傳 刪除筆數",
+               operationId = "deleteAll")
+    @PostMapping("/deleteAll")
+    public ResponseEntity<Integer> deleteAll(@RequestBody List<Clnt.ClntKey> idList) {
+        List<String> ids = new ArrayList<>(idList.size());
+        for (Clnt.ClntKey id : idList) {
+            ids.add(id.getClientId());
+        }
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            count += clntService.deleteAllByIds(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
 }
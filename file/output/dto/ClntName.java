@@ -0,0 +1,22 @@
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "客戶資料檔 (ClntName)")
+public class ClntName {
+    @Schema(description = "客戶證號")
+    private final String clientId;
+    @Schema(description = "客戶姓名")
+    private final String names;
+
+    public ClntName(String clientId, String names) {
+        this.clientId = clientId;
+        this.names = names;
+    }
+
+    public String getClientId() {
+        return clientId!= null ? clientId.trim() : null;
+    }
+
+    public String getNames() {
+        return names!= null ? names.trim() : null;
+    }
+}
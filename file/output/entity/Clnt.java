@@ -33,6 +33,13 @@ public class Clnt implements Serializable {
 
     public Clnt() {}
 
+    public Clnt(String clientId, String names, String sex, Integer age) {
+        this.clientId = clientId;
+        this.names = names;
+        this.sex = sex;
+        this.age = age;
+    }
+
     public String getClientId() {
         return clientId!= null ? clientId.trim() : null;
     }
@@ -1,10 +1,99 @@
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface ClntCustomRepository {
     /**
      * 單筆更新 clnt <br/>
      * @param entityOri 變更前的 clnt
      * @param entityNew 變更後的 clnt
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
      */
-    void update(Clnt entityOri, Clnt entityNew);
+    int update(Clnt entityOri, Clnt entityNew);
+
+    /**
+     * 單筆 部分更新 clnt，只 SET 有變更的欄位，主鍵 不會變更 <br/>
+     * @param entityOri 變更前的 clnt
+     * @param entityNew 變更後的 clnt
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    int patch(Clnt entityOri, Clnt entityNew);
+
+    /**
+     * 批次更新 clnt，以 JDBC batch 執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 實際更新筆數
+     */
+    int updateAll(List<Clnt.ClntUpdate> updateList, int batchSize);
+
+    /**
+     * 批次新增 clnt，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * @param entityList 要新增的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    int batchInsert(List<Clnt> entityList, int batchSize);
+
+    /**
+     * 依 主鍵 排序 分頁查詢 clnt (keyset pagination)
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return clnt 清單
+     */
+    List<Clnt> findPage(String afterKey, int limit);
+
+    /**
+     * 逐筆讀取 全部 clnt，不會 全部載入記憶體
+     * @param consumer 每筆資料的 處理方法
+     */
+    void streamAll(Consumer<Clnt> consumer);
+
+    /**
+     * 依 主鍵 排序 分頁查詢 ClntName，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return ClntName 清單
+     */
+    List<ClntName> findClntNamePage(String afterKey, int limit);
+
+    /**
+     * 根據主鍵 刪除 clnt，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    int deleteByKey(String id);
+
+    /**
+     * 根據主鍵 批次刪除 clnt
+     * @param ids 主鍵值 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 刪除筆數
+     */
+    int deleteAllByKeys(List<String> ids, int batchSize);
+
+    /**
+     * 根據主鍵 查詢 clnt，以 JDBC 讀取，不經過 JPA 的 persistence context
+     * @param id 主鍵值
+     * @return 查詢到的 clnt，若無則返回 null
+     */
+    Clnt findByKey(String id);
+
+    /**
+     * 根據主鍵 批次查詢 clnt，分段查詢，不會 逐筆查詢
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 clnt 清單，查無資料的主鍵 不會出現
+     */
+    List<Clnt> findAllByKeys(Collection<String> ids);
+
+    /**
+     * 根據主鍵 批次 新增或更新 clnt，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    int batchUpsert(List<Clnt> entityList, int batchSize);
 
 }
@@ -1,44 +1,495 @@
 import org.springframework.stereotype.Repository;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
 public class ClntCustomRepositoryImpl implements ClntCustomRepository {
-    @Autowired
-    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    // 以 變更前的 全部欄位 比對，資料已被 其他人 修改時 不會更新
+    // 以 位置參數 執行，參數 由 setUpdateValues 依序 設定，不需 每筆 建立 參數 Map
+    private static final String UPDATE_SQL =
+            "UPDATE clnt " +
+            "SET client_id = ? " +
+            "   ,names = ? " +
+            "   ,sex = ? " +
+            "   ,age = ? " +
+            "WHERE client_id = ? " +
+            "  AND names = ? " +
+            "  AND sex = ? " +
+            "  AND age = ?";
+    /** patch 的 SET 片段，索引 為 欄位位置 (主鍵 除外)；以 位置參數 執行，參數 由 setPatchValues 依序 設定 */
+    private static final String[] PATCH_SET = {
+            "names = ?",
+            "sex = ?",
+            "age = ?"
+    };
+    /** patch 的 WHERE 片段，以 變更前的 值 比對 有變更的欄位 */
+    private static final String[] PATCH_CHECK = {
+            " AND names = ?",
+            " AND sex = ?",
+            " AND age = ?"
+    };
+    /** 變更前的 值 為 null 時 的 WHERE 片段 */
+    private static final String[] PATCH_CHECK_NULL = {
+            " AND names IS NULL",
+            " AND sex IS NULL",
+            " AND age IS NULL"
+    };
+    private static final String PATCH_WHERE =
+            " WHERE client_id = ?";
+    /** 已組合的 patch SQL，以 變更的欄位 與 變更前 為 null 的欄位 為 key，每種組合 只組合一次 */
+    private static final Map<BitSet, String> PATCH_SQL_CACHE = new ConcurrentHashMap<>();
+    /** patch SQL 快取 的 上限，超過時 不再快取 (每次組合) */
+    private static final int PATCH_SQL_CACHE_LIMIT = 1024;
+    private static final String INSERT_SQL =
+            "INSERT INTO clnt (client_id, names, sex, age) " +
+            "VALUES (:clientId, :names, :sex, :age)";
+    private static final String UPSERT_SQL =
+            "MERGE INTO clnt t " +
+            "USING (SELECT 1 AS dummy FROM systables WHERE tabid = 1) s " +
+            "ON (t.client_id = :clientId) " +
+            "WHEN MATCHED THEN UPDATE SET names = :names, sex = :sex, age = :age " +
+            "WHEN NOT MATCHED THEN INSERT (client_id, names, sex, age) " +
+            "VALUES (:clientId, :names, :sex, :age)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM clnt " +
+            "WHERE client_id = :clientId";
+    private static final String DELETE_IN_SQL =
+            "DELETE FROM clnt WHERE client_id IN (:ids)";
+    private static final String FIND_BY_KEY_SQL =
+            "SELECT client_id, names, sex, age " +
+            "FROM clnt " +
+            "WHERE client_id = :clientId";
+    private static final String FIND_BY_KEYS_SQL =
+            "SELECT client_id, names, sex, age " +
+            "FROM clnt " +
+            "WHERE client_id IN (:ids)";
+    /** IN 清單 每次最多的筆數 (Oracle 上限 1000) */
+    private static final int IN_LIMIT = 1000;
+    private static final String PAGE_FIRST_SQL =
+            "SELECT FIRST :limit client_id, names, sex, age " +
+            "FROM clnt " +
+            "ORDER BY client_id";
+    private static final String PAGE_AFTER_SQL =
+            "SELECT FIRST :limit client_id, names, sex, age " +
+            "FROM clnt " +
+            "WHERE (client_id > :clientId) " +
+            "ORDER BY client_id";
+    private static final String SELECT_ALL_SQL =
+            "SELECT client_id, names, sex, age " +
+            "FROM clnt";
+    /** 串流查詢 每次 由資料庫 取回的筆數 */
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String CLNT_NAME_PAGE_FIRST_SQL =
+            "SELECT FIRST :limit client_id, names " +
+            "FROM clnt " +
+            "ORDER BY client_id";
+    private static final String CLNT_NAME_PAGE_AFTER_SQL =
+            "SELECT FIRST :limit client_id, names " +
+            "FROM clnt " +
+            "WHERE (client_id > :clientId) " +
+            "ORDER BY client_id";
+    private static final RowMapper<ClntName> CLNT_NAME_MAPPER = (rs, rowNum) -> new ClntName(
+            rs.getString(1),
+            rs.getString(2));
+
+    /** 以 欄位位置 讀取 查詢結果，不經過 JPA，欄位順序 與 SELECT 相同 */
+    private static final RowMapper<Clnt> ROW_MAPPER = (rs, rowNum) -> new Clnt(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            getInteger(rs, 4));
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public ClntCustomRepositoryImpl(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
 
     /**
      * 單筆更新 clnt <br/>
      * @param entityOri 變更前的 clnt
      * @param entityNew 變更後的 clnt
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public int update(Clnt entityOri, Clnt entityNew) {
+        return namedParameterJdbcTemplate.getJdbcOperations().update(UPDATE_SQL,
+                ps -> setUpdateValues(ps, entityOri, entityNew));
+    }
+
+    /**
+     * 單筆 部分更新 clnt，只 SET 有變更的欄位，主鍵 不會變更 <br/>
+     * @param entityOri 變更前的 clnt
+     * @param entityNew 變更後的 clnt
+     * @return 更新筆數，0 代表 無變更的欄位 (不執行 SQL)、資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public int patch(Clnt entityOri, Clnt entityNew) {
+        BitSet changed = new BitSet();
+        for (int i = 0; i < PATCH_SET.length; i++) {
+            Object valueOri = patchValue(entityOri, i);
+            if (!Objects.deepEquals(valueOri, patchValue(entityNew, i))) {
+                changed.set(i);
+                if (valueOri == null) {
+                    changed.set(PATCH_SET.length + i);
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.getJdbcOperations().update(patchSql(changed),
+                ps -> setPatchValues(ps, changed, entityOri, entityNew));
+    }
+
+    /**
+     * 依 有變更的欄位 組合 patch 的 SQL，由 預先產生的 片段 組合，相同組合 由快取 取得
+     * @param changed 有變更的欄位 (PATCH_SET.length 之後 為 變更前 為 null 的欄位)
+     * @return UPDATE SQL
+     */
+    private static String patchSql(BitSet changed) {
+        String sql = PATCH_SQL_CACHE.get(changed);
+        if (sql != null) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder("UPDATE clnt SET ");
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            builder.append(PATCH_SET[i]).append(',');
+        }
+        builder.setLength(builder.length() - 1);
+        builder.append(PATCH_WHERE);
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            builder.append(changed.get(PATCH_SET.length + i) ? PATCH_CHECK_NULL[i] : PATCH_CHECK[i]);
+        }
+        sql = builder.toString();
+        if (PATCH_SQL_CACHE.size() < PATCH_SQL_CACHE_LIMIT) {
+            PATCH_SQL_CACHE.putIfAbsent((BitSet) changed.clone(), sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 依 patchSql 的 參數順序 設定 有變更的欄位 的 值
+     * @param ps PreparedStatement
+     * @param changed 有變更的欄位，與 patchSql 相同
+     * @param entityOri 變更前的 clnt
+     * @param entityNew 變更後的 clnt
+     * @throws SQLException 設定參數時的錯誤
+     */
+    private static void setPatchValues(PreparedStatement ps, BitSet changed, Clnt entityOri, Clnt entityNew)
+            throws SQLException {
+        int index = 0;
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, patchValue(entityNew, i));
+        }
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.getClientId());
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            // 變更前 為 null 者 以 IS NULL 比對，無此參數
+            if (!changed.get(PATCH_SET.length + i)) {
+                StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, patchValue(entityOri, i));
+            }
+        }
+    }
+
+    /**
+     * 取得 patch 可變更的欄位 的 值
+     * @param entity clnt
+     * @param index 欄位位置，與 PATCH_SET 相同
+     * @return 欄位值
+     */
+    private static Object patchValue(Clnt entity, int index) {
+        switch (index) {
+            case 0:
+                return entity.getNames();
+            case 1:
+                return entity.getSex();
+            case 2:
+                return entity.getAge();
+            default:
+                throw new IndexOutOfBoundsException("patch 欄位位置 超出範圍：" + index);
+        }
+    }
+
+    /**
+     * 批次更新 clnt，以 JDBC batch 執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 實際更新筆數
+     */
+    @Override
+    @Transactional
+    public int updateAll(List<Clnt.ClntUpdate> updateList, int batchSize) {
+        return updateChunks(updateList, batchSize);
+    }
+
+    /**
+     * 批次新增 clnt，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * @param entityList 要新增的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public int batchInsert(List<Clnt> entityList, int batchSize) {
+        return batchUpdate(INSERT_SQL, entityList, batchSize);
+    }
+
+    /**
+     * 根據主鍵 批次 新增或更新 clnt，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public int batchUpsert(List<Clnt> entityList, int batchSize) {
+        return batchUpdate(UPSERT_SQL, entityList, batchSize);
+    }
+
+    /**
+     * 根據主鍵 刪除 clnt，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public int deleteByKey(String id) {
+        return namedParameterJdbcTemplate.update(DELETE_SQL, toKeyParams(id));
+    }
+
+    /**
+     * 根據主鍵 批次刪除 clnt，以 IN 清單 分段執行
+     * @param ids 主鍵值 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 刪除筆數
      */
     @Override
     @Transactional
-    public void update(Clnt entityOri, Clnt entityNew) {
-        // 建立 SQL
-        String sql = "UPDATE clnt " +
-                     "SET client_id = :clientIdNew " +
-                     "   ,names = :namesNew " +
-                     "   ,sex = :sexNew " +
-                     "   ,age = :ageNew " +
-                     "WHERE client_id = :clientIdOri " +
-                     "  AND names = :namesOri " + 
-                     "  AND sex = :sexOri " + 
-                     "  AND age = :ageOri ";
-        // 填入 參數
-        Map<String, Object> params = new HashMap<>();
-        params.put("clientIdNew", entityNew.getClientId());
-        params.put("namesNew", entityNew.getNames());
-        params.put("sexNew", entityNew.getSex());
-        params.put("ageNew", entityNew.getAge());
-        params.put("clientIdOri", entityOri.getClientId());
-        params.put("namesOri", entityOri.getNames());
-        params.put("sexOri", entityOri.getSex());
-        params.put("ageOri", entityOri.getAge());
-        // 執行 方法
-        namedParameterJdbcTemplate.update(sql, params);
+    public int deleteAllByKeys(List<String> ids, int batchSize) {
+        int count = 0;
+        int chunkSize = Math.min(batchSize, IN_LIMIT);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            count += namedParameterJdbcTemplate.update(DELETE_IN_SQL, new MapSqlParameterSource("ids", chunk));
+        }
+        return count;
+    }
+
+    /**
+     * 根據主鍵 查詢 clnt，以 JDBC 讀取，不經過 JPA 的 persistence context
+     * @param id 主鍵值
+     * @return 查詢到的 clnt，若無則返回 null
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Clnt findByKey(String id) {
+        List<Clnt> entityList = namedParameterJdbcTemplate.query(FIND_BY_KEY_SQL, toKeyParams(id), ROW_MAPPER);
+        return entityList.isEmpty() ? null : entityList.get(0);
+    }
+
+    /**
+     * 根據主鍵 批次查詢 clnt，分段 以 IN 清單 查詢，每段 一次查詢
+     * @param ids 主鍵值 清單，重複者 只查詢一次
+     * @return 查詢到的 clnt 清單，查無資料的主鍵 不會出現，順序 不保證 與 主鍵值 相同
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Clnt> findAllByKeys(Collection<String> ids) {
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Clnt> entityList = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += IN_LIMIT) {
+            List<String> chunk = keys.subList(from, Math.min(from + IN_LIMIT, keys.size()));
+            entityList.addAll(namedParameterJdbcTemplate.query(FIND_BY_KEYS_SQL, new MapSqlParameterSource("ids", chunk), ROW_MAPPER));
+        }
+        return entityList;
+    }
+
+    /**
+     * 依 主鍵 排序 分頁查詢 clnt (keyset pagination)，不使用 OFFSET，越後面的頁數 也不會 變慢
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return clnt 清單
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Clnt> findPage(String afterKey, int limit) {
+        if (afterKey == null) {
+            return namedParameterJdbcTemplate.query(PAGE_FIRST_SQL, new MapSqlParameterSource("limit", limit), ROW_MAPPER);
+        }
+        return namedParameterJdbcTemplate.query(PAGE_AFTER_SQL, toKeyParams(afterKey).addValue("limit", limit), ROW_MAPPER);
+    }
+
+    /**
+     * 依 主鍵 排序 分頁查詢 ClntName，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return ClntName 清單
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClntName> findClntNamePage(String afterKey, int limit) {
+        if (afterKey == null) {
+            return namedParameterJdbcTemplate.query(CLNT_NAME_PAGE_FIRST_SQL, new MapSqlParameterSource("limit", limit),
+                    CLNT_NAME_MAPPER);
+        }
+        return namedParameterJdbcTemplate.query(CLNT_NAME_PAGE_AFTER_SQL, toKeyParams(afterKey).addValue("limit", limit),
+                CLNT_NAME_MAPPER);
+    }
+
+    /**
+     * 逐筆讀取 全部 clnt，每次 由資料庫 取回 FETCH_SIZE 筆，不會 全部載入記憶體 <br/>
+     * PostgreSQL 需在 交易中 fetch size 才有作用；MySQL 需在 連線設定 加上 useCursorFetch=true
+     * @param consumer 每筆資料的 處理方法
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Clnt> consumer) {
+        namedParameterJdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    /**
+     * 讀取 Integer 欄位，rs.getInt 在 NULL 時 回傳 預設值，需以 wasNull 判斷
+     * @param rs 查詢結果
+     * @param index 欄位位置 (從 1 開始)
+     * @return 欄位值，NULL 時 為 null
+     * @throws SQLException 讀取欄位時的錯誤
+     */
+    private static Integer getInteger(ResultSet rs, int index) throws SQLException {
+        int value = rs.getInt(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * 每 batchSize 筆 送出一次 UPDATE 的 JDBC batch
+     * @param updateList 變更前 與 變更後 的 clnt 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 實際更新筆數
+     */
+    private int updateChunks(List<Clnt.ClntUpdate> updateList, int batchSize) {
+        int count = 0;
+        for (int from = 0; from < updateList.size(); from += batchSize) {
+            List<Clnt.ClntUpdate> chunk = updateList.subList(from, Math.min(from + batchSize, updateList.size()));
+            count += updateBatch(UPDATE_SQL, chunk);
+        }
+        return count;
+    }
+
+    /**
+     * 以 一次 JDBC batch 執行 UPDATE
+     * @param sql 執行的 UPDATE SQL
+     * @param updateList 變更前 與 變更後 的 clnt 清單
+     * @return 實際更新筆數
+     */
+    private int updateBatch(String sql, List<Clnt.ClntUpdate> updateList) {
+        if (updateList.isEmpty()) {
+            return 0;
+        }
+        // 每筆 直接 設定 PreparedStatement 的 參數，不建立 參數物件
+        int[] results = namedParameterJdbcTemplate.getJdbcOperations().batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Clnt.ClntUpdate entityUpdate = updateList.get(i);
+                setUpdateValues(ps, entityUpdate.getClntOri(), entityUpdate.getClntNew());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return updateList.size();
+            }
+        });
+        int count = 0;
+        for (int rows : results) {
+            // 部分 JDBC driver 的 batch 不回傳筆數，視為 更新一筆
+            count += rows == Statement.SUCCESS_NO_INFO ? 1 : rows;
+        }
+        return count;
+    }
+
+    /**
+     * 每 batchSize 筆 送出一次 JDBC batch
+     * @param sql 執行的 SQL
+     * @param entityList 資料清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    private int batchUpdate(String sql, List<Clnt> entityList, int batchSize) {
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, entityList.size());
+            SqlParameterSource[] batch = new SqlParameterSource[to - from];
+            for (int i = from; i < to; i++) {
+                batch[i - from] = toParams(entityList.get(i));
+            }
+            namedParameterJdbcTemplate.batchUpdate(sql, batch);
+            count += batch.length;
+        }
+        return count;
+    }
+
+    /**
+     * 依 UPDATE_SQL 的 參數順序 設定 變更後的值 與 變更前的值
+     * @param ps PreparedStatement
+     * @param entityOri 變更前的 clnt
+     * @param entityNew 變更後的 clnt
+     * @throws SQLException 設定參數時的錯誤
+     */
+    private static void setUpdateValues(PreparedStatement ps, Clnt entityOri, Clnt entityNew) throws SQLException {
+        int index = 0;
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityNew.getClientId());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityNew.getNames());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityNew.getSex());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityNew.getAge());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.getClientId());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.getNames());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.getSex());
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.getAge());
+    }
+
+    /**
+     * 將 主鍵值 轉為 SQL 參數，參數名稱 為 欄位名稱
+     * @param id 主鍵值
+     * @return SQL 參數
+     */
+    private static MapSqlParameterSource toKeyParams(String id) {
+        return new MapSqlParameterSource("clientId", id);
+    }
+
+    /**
+     * 將 clnt 轉為 SQL 參數，參數名稱 為 欄位名稱
+     * @param entity clnt
+     * @return SQL 參數
+     */
+    private static MapSqlParameterSource toParams(Clnt entity) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("clientId", entity.getClientId());
+        params.addValue("names", entity.getNames());
+        params.addValue("sex", entity.getSex());
+        params.addValue("age", entity.getAge());
+        return params;
     }
 
 }
@@ -1,12 +1,18 @@
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class ClntServiceImpl implements ClntService {
-    @Autowired
-    private ClntRepository clntRepository;
+    /** JDBC batch 每批 送出的筆數 */
+    private static final int BATCH_SIZE = 1000;
+
+    private final ClntRepository clntRepository;
+
+    public ClntServiceImpl(ClntRepository clntRepository) {
+        this.clntRepository = clntRepository;
+    }
 
     /**
      * 根據主鍵 新增或更新 clnt <br/>
@@ -33,25 +39,138 @@ public class ClntServiceImpl implements ClntService {
     }
 
     /**
-     * 根據主鍵 查詢 clnt
+     * 批次新增 clnt，以 JDBC batch 執行，適用於 大量匯入 <br/>
+     * @param entityList 要新增的 clnt 清單
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public int batchInsert(List<Clnt> entityList) {
+        return clntRepository.batchInsert(entityList, BATCH_SIZE);
+    }
+
+    /**
+     * 單筆更新 clnt <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 clnt
+     * @param entityNew 變更後的 clnt
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public int update(Clnt entityOri, Clnt entityNew) {
+        return clntRepository.update(entityOri, entityNew);
+    }
+
+    /**
+     * 單筆 部分更新 clnt，只更新 有變更的欄位，主鍵 不會變更 <br/>
+     * 有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 clnt
+     * @param entityNew 變更後的 clnt
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public int patch(Clnt entityOri, Clnt entityNew) {
+        return clntRepository.patch(entityOri, entityNew);
+    }
+
+    /**
+     * 批次更新 clnt，以 JDBC batch 執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 clnt 清單
+     * @return 實際更新筆數
+     */
+    @Override
+    @Transactional
+    public int updateAll(List<Clnt.ClntUpdate> updateList) {
+        return clntRepository.updateAll(updateList, BATCH_SIZE);
+    }
+
+    /**
+     * 根據主鍵 批次 新增或更新 clnt，以 JDBC batch 執行，適用於 大量匯入 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 clnt 清單
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public int batchUpsert(List<Clnt> entityList) {
+        return clntRepository.batchUpsert(entityList, BATCH_SIZE);
+    }
+
+    /**
+     * 依 主鍵 排序 分頁查詢 clnt，以 上一頁 最後一筆的主鍵 取得 下一頁
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return clnt 清單
+     */
+    @Override
+    public List<Clnt> findPage(String afterKey, int limit) {
+        return clntRepository.findPage(afterKey, limit);
+    }
+
+    /**
+     * 逐筆讀取 全部 clnt，不會 全部載入記憶體
+     * @param consumer 每筆資料的 處理方法
+     */
+    @Override
+    public void streamAll(Consumer<Clnt> consumer) {
+        clntRepository.streamAll(consumer);
+    }
+
+    /**
+     * 依 主鍵 排序 分頁查詢 ClntName，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return ClntName 清單
+     */
+    @Override
+    public List<ClntName> findClntNamePage(String afterKey, int limit) {
+        return clntRepository.findClntNamePage(afterKey, limit);
+    }
+
+    /**
+     * 根據主鍵 查詢 clnt，以 JDBC 讀取，不經過 JPA 的 persistence context
      * @param id 主鍵值
      * @return 查詢到的實體物件，若無則返回 null
      */
     @Override
     @Transactional(readOnly = true)
     public Clnt findById(String id) {
-        return clntRepository.findById(id).orElse(null);
+        return clntRepository.findByKey(id);
     }
 
     /**
-     * 根據主鍵 刪除 clnt
+     * 根據主鍵 批次查詢 clnt，分段查詢，不會 逐筆查詢
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 clnt 清單，查無資料的主鍵 不會出現
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Clnt> findAllByIds(Collection<String> ids) {
+        return clntRepository.findAllByKeys(ids);
+    }
+
+    /**
+     * 根據主鍵 刪除 clnt，直接執行 DELETE，不會 先查詢
      * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public int deleteById(String id) {
+        return clntRepository.deleteByKey(id);
+    }
+
+    /**
+     * 根據主鍵 批次刪除 clnt
+     * @param ids 主鍵值 清單
+     * @return 刪除筆數
      */
     @Override
     @Transactional
-    public void deleteById(String id) {
-        if (clntRepository.existsById(id)) {
-            clntRepository.deleteById(id);
-        }
+    public int deleteAllByIds(List<String> ids) {
+        return clntRepository.deleteAllByKeys(ids, BATCH_SIZE);
     }
 }
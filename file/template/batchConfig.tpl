@@ -0,0 +1,30 @@
+{{! Spring Batch 設定，batch.job=true 時 產生，所有 table 共用 }}
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 啟用 Spring Batch，各 table 的 匯入、匯出 工作 位於 batch 資料夾 <br/>
+ * 工作的 執行狀態 記錄在 資料庫 (BATCH_ 開頭的 table)，失敗後 以 相同參數 再執行 時 由 中斷的位置 繼續
+ */
+@Configuration
+@EnableBatchProcessing
+public class BatchConfig {
+    /** 同時 執行的 分割數 */
+    private static final int PARTITIONS = {{batchPartitions}};
+
+    /**
+     * 分割 平行執行 的 執行緒池，每個 分割 各自 使用 一個 資料庫連線，連線池 需大於 分割數
+     * @return 執行緒池
+     */
+    @Bean
+    public TaskExecutor batchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(PARTITIONS);
+        executor.setMaxPoolSize(PARTITIONS);
+        executor.setThreadNamePrefix("batch-");
+        return executor;
+    }
+}
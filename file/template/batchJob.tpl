@@ -0,0 +1,273 @@
+{{! Spring Batch 的 匯入、匯出 工作，batch.job=true 時 產生 }}
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.MultiResourcePartitioner;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.batch.item.json.JacksonJsonObjectMarshaller;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.task.TaskExecutor;
+{{#if exportRangeKey}}
+import org.springframework.jdbc.core.JdbcTemplate;
+{{/if}}
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {{tableName}} 的 批次 匯入、匯出 工作，資料 為 NDJSON (每行 一筆 JSON，與 stream 的 輸出 相同) <br/>
+ * 匯入 ({{entityVarName}}ImportJob)：參數 input 為 檔案路徑 (可用 萬用字元，如：file:/data/{{tableName}}-*.ndjson)，每個檔案 一個分割 平行處理，
+ * 逐行讀取，每 CHUNK_SIZE 筆 一個交易，以 JDBC batch {{#if primaryKeyExists}}新增或更新{{else}}新增{{/if}} <br/>
+{{#if exportRangeKey}}
+ * 匯出 ({{entityVarName}}ExportJob)：參數 output 為 檔案路徑 的 前綴，依 主鍵 範圍 分割 平行 寫出 output-0.ndjson、output-1.ndjson ... <br/>
+{{else}}
+ * 匯出 ({{entityVarName}}ExportJob)：參數 output 為 檔案路徑 的 前綴，依 主鍵 排序 寫出 output-0.ndjson (主鍵 不是 單一 整數 欄位，不分割) <br/>
+{{/if}}
+ * 記憶體用量 只與 CHUNK_SIZE 有關；失敗後 以 相同參數 再執行 時，已完成的 chunk 不會 重新處理
+ */
+@Configuration
+public class {{entityName}}BatchConfig {
+    /** 每個交易 (chunk) 的筆數 */
+    private static final int CHUNK_SIZE = {{batchChunkSize}};
+    /** 最多的 分割數 */
+    private static final int GRID_SIZE = {{batchPartitions}};
+    /** 匯出時 每次 由資料庫 取回的筆數 */
+    private static final int FETCH_SIZE = {{streamFetchSize}};
+    private static final String EXPORT_SQL =
+{{#each exportSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{#if exportRangeKey}}
+    private static final String KEY_RANGE_SQL =
+            "SELECT MIN({{exportRangeKey.columnName}}), MAX({{exportRangeKey.columnName}}) FROM {{tableName}}";
+{{/if}}
+
+    @Autowired
+    private JobBuilderFactory jobBuilderFactory;
+    @Autowired
+    private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    @Qualifier("batchTaskExecutor")
+    private TaskExecutor batchTaskExecutor;
+    @Autowired
+    private DataSource dataSource;
+{{#if exportRangeKey}}
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+{{/if}}
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private {{entityName}}Service {{entityVarName}}Service;
+
+    /**
+     * 匯入工作：每個 輸入檔案 一個分割，平行處理
+     * @return 匯入工作
+     */
+    @Bean
+    public Job {{entityVarName}}ImportJob() {
+        return jobBuilderFactory.get("{{entityVarName}}ImportJob")
+                .start(stepBuilderFactory.get("{{entityVarName}}ImportStep")
+                        .partitioner("{{entityVarName}}ImportFileStep", {{entityVarName}}ImportPartitioner(null))
+                        .step({{entityVarName}}ImportFileStep())
+                        .gridSize(GRID_SIZE)
+                        .taskExecutor(batchTaskExecutor)
+                        .build())
+                .build();
+    }
+
+    /**
+     * 依 參數 input 找出 輸入檔案，每個檔案 一個分割，檔案位置 記錄在 fileName
+     * @param input 檔案路徑，可用 萬用字元
+     * @return 分割方式
+     */
+    @Bean
+    @JobScope
+    public MultiResourcePartitioner {{entityVarName}}ImportPartitioner(
+            @Value("#{jobParameters['input']}") String input) {
+        MultiResourcePartitioner partitioner = new MultiResourcePartitioner();
+        try {
+            partitioner.setResources(new PathMatchingResourcePatternResolver().getResources(input));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return partitioner;
+    }
+
+    /**
+     * 匯入 單一檔案，讀取的行數 記錄在 執行狀態，重新啟動 時 略過 已完成的 chunk
+     * @return 匯入步驟
+     */
+    @Bean
+    public Step {{entityVarName}}ImportFileStep() {
+        return stepBuilderFactory.get("{{entityVarName}}ImportFileStep")
+                .<{{entityName}}, {{entityName}}>chunk(CHUNK_SIZE)
+                .reader({{entityVarName}}ImportReader(null))
+                .writer({{entityVarName}}ImportWriter())
+                .build();
+    }
+
+    /**
+     * 逐行 讀取 NDJSON，不會 全部載入記憶體
+     * @param file 輸入檔案
+     * @return 讀取器
+     */
+    @Bean
+    @StepScope
+    public FlatFileItemReader<{{entityName}}> {{entityVarName}}ImportReader(
+            @Value("#{stepExecutionContext['fileName']}") Resource file) {
+        return new FlatFileItemReaderBuilder<{{entityName}}>()
+                .name("{{entityVarName}}ImportReader")
+                .resource(file)
+                .encoding("UTF-8")
+                .lineMapper((line, lineNumber) -> objectMapper.readValue(line, {{entityName}}.class))
+                .build();
+    }
+
+    /**
+     * 每個 chunk 在 步驟的交易中 以 service 的 JDBC batch 寫入 (快取、metrics 與 bulkhead 與 API 相同)
+     * @return 寫入器
+     */
+    @Bean
+    public ItemWriter<{{entityName}}> {{entityVarName}}ImportWriter() {
+{{#if primaryKeyExists}}
+        return items -> {{entityVarName}}Service.batchUpsert(new ArrayList<>(items));
+{{else}}
+        return items -> {{entityVarName}}Service.batchInsert(new ArrayList<>(items));
+{{/if}}
+    }
+
+    /**
+     * 匯出工作：{{#if exportRangeKey}}依 主鍵 範圍 分割，平行處理{{else}}單一分割{{/if}}
+     * @return 匯出工作
+     */
+    @Bean
+    public Job {{entityVarName}}ExportJob() {
+        return jobBuilderFactory.get("{{entityVarName}}ExportJob")
+                .start(stepBuilderFactory.get("{{entityVarName}}ExportStep")
+                        .partitioner("{{entityVarName}}ExportRangeStep", {{entityVarName}}ExportPartitioner())
+                        .step({{entityVarName}}ExportRangeStep())
+                        .gridSize(GRID_SIZE)
+                        .taskExecutor(batchTaskExecutor)
+                        .build())
+                .build();
+    }
+
+    /**
+{{#if exportRangeKey}}
+     * 依 主鍵的 最小值 與 最大值 平均分割 為 gridSize 個 範圍 (minKey、maxKey)，主鍵 不連續 時 各分割的筆數 可能不同
+{{else}}
+     * 主鍵 不是 單一 整數 欄位，無法 依範圍 分割，只有 一個分割
+{{/if}}
+     * @return 分割方式
+     */
+    @Bean
+    public Partitioner {{entityVarName}}ExportPartitioner() {
+        return gridSize -> {
+            Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+{{#if exportRangeKey}}
+            long[] range = jdbcTemplate.queryForObject(KEY_RANGE_SQL, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+            long size = (range[1] - range[0]) / gridSize + 1;
+            for (int i = 0; i < gridSize; i++) {
+                ExecutionContext context = new ExecutionContext();
+                context.putString("partition", String.valueOf(i));
+                context.putLong("minKey", range[0] + size * i);
+                context.putLong("maxKey", i == gridSize - 1 ? range[1] : range[0] + size * (i + 1) - 1);
+                partitions.put("partition" + i, context);
+            }
+{{else}}
+            ExecutionContext context = new ExecutionContext();
+            context.putString("partition", "0");
+            partitions.put("partition0", context);
+{{/if}}
+            return partitions;
+        };
+    }
+
+    /**
+     * 匯出 單一分割，讀取的筆數 記錄在 執行狀態，重新啟動 時 略過 已寫出的 chunk
+     * @return 匯出步驟
+     */
+    @Bean
+    public Step {{entityVarName}}ExportRangeStep() {
+        return stepBuilderFactory.get("{{entityVarName}}ExportRangeStep")
+                .<{{entityName}}, {{entityName}}>chunk(CHUNK_SIZE)
+{{#if exportRangeKey}}
+                .reader({{entityVarName}}ExportReader(null, null))
+{{else}}
+                .reader({{entityVarName}}ExportReader())
+{{/if}}
+                .writer({{entityVarName}}ExportWriter(null, null))
+                .build();
+    }
+
+    /**
+     * 依 主鍵 排序 以 cursor 讀取，每次 由資料庫 取回 FETCH_SIZE 筆，不會 全部載入記憶體
+{{#if exportRangeKey}}
+     * @param minKey 分割範圍 的 最小主鍵
+     * @param maxKey 分割範圍 的 最大主鍵
+{{/if}}
+     * @return 讀取器
+     */
+    @Bean
+    @StepScope
+{{#if exportRangeKey}}
+    public JdbcCursorItemReader<{{entityName}}> {{entityVarName}}ExportReader(
+            @Value("#{stepExecutionContext['minKey']}") Long minKey, @Value("#{stepExecutionContext['maxKey']}") Long maxKey) {
+{{else}}
+    public JdbcCursorItemReader<{{entityName}}> {{entityVarName}}ExportReader() {
+{{/if}}
+        return new JdbcCursorItemReaderBuilder<{{entityName}}>()
+                .name("{{entityVarName}}ExportReader")
+                .dataSource(dataSource)
+                .sql(EXPORT_SQL)
+{{#if exportRangeKey}}
+                .queryArguments(minKey, maxKey)
+{{/if}}
+                .fetchSize(FETCH_SIZE)
+                // PostgreSQL 需 關閉 auto commit，fetch size 才有作用
+                .connectionAutoCommit(false)
+                .rowMapper({{entityName}}CustomRepositoryImpl.ROW_MAPPER)
+                .build();
+    }
+
+    /**
+     * 每行 寫出 一筆 JSON，重新啟動 時 由 上次 完成的位置 繼續 寫入
+     * @param output 檔案路徑 的 前綴
+     * @param partition 分割編號
+     * @return 寫入器
+     */
+    @Bean
+    @StepScope
+    public FlatFileItemWriter<{{entityName}}> {{entityVarName}}ExportWriter(
+            @Value("#{jobParameters['output']}") String output, @Value("#{stepExecutionContext['partition']}") String partition) {
+        return new FlatFileItemWriterBuilder<{{entityName}}>()
+                .name("{{entityVarName}}ExportWriter")
+                .resource(new FileSystemResource(output + "-" + partition + ".ndjson"))
+                .encoding("UTF-8")
+                .lineAggregator(new JacksonJsonObjectMarshaller<{{entityName}}>(objectMapper)::marshal)
+                .build();
+    }
+}
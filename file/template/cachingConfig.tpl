@@ -0,0 +1,30 @@
+{{! 快取設定，cache.enabled=true 時 產生，所有 table 共用 }}
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableCaching
+public class CachingConfig {
+    /** 每個 cache 最多的筆數，超過時 移除 最少使用的資料 */
+    private static final long MAXIMUM_SIZE = {{cacheMaxSize}};
+    /** 寫入後 保留的秒數，過期後 重新由資料庫 讀取 */
+    private static final long EXPIRE_SECONDS = {{cacheTtlSeconds}};
+
+    /**
+     * 本機 Caffeine 快取，每個 entity 一個 cache (名稱 為 entity 名稱)，使用時 才建立
+     * @return CacheManager
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(EXPIRE_SECONDS, TimeUnit.SECONDS));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,302 @@
+{{! RestController，主鍵 一律以 Key 類 接收 }}
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.Parameter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+@RestController
+@RequestMapping("/api/{{apiName}}")
+{{#if description}}
+@Tag(name = "{{entityName}} Controller", description = "{{description}} API 接口")
+{{else}}
+@Tag(name = "{{entityName}} Controller")
+{{/if}}
+public class {{entityName}}Controller {
+    /** 大量資料 每段的筆數，每段 一個交易 */
+    private static final int CHUNK_SIZE = {{batchChunkSize}};
+{{#if keysetPageable}}
+    /** 分頁查詢 每頁 最多的筆數 */
+    private static final int PAGE_MAX_SIZE = {{pageMaxSize}};
+{{/if}}
+    private static final String NDJSON = "application/x-ndjson";
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private {{entityName}}Service {{entityVarName}}Service;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 新增或更新 {{entityName}}",
+               description = "根據主鍵，若有資料則更新，無資料則新增",
+{{else}}
+    @Operation(summary = "單筆新增 {{entityName}}",
+               description = "單筆新增 {{entityName}} 資料",
+{{/if}}
+               operationId = "save")
+    @PostMapping("/save")
+    public ResponseEntity<{{entityName}}> save(@RequestBody {{entityName}} entity) {
+        {{entityName}} savedEntity = {{entityVarName}}Service.save(entity);
+        return ResponseEntity.ok(savedEntity);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 大量 新增或更新 {{entityName}}",
+               description = "根據主鍵，若有資料則更新，無資料則新增",
+{{else}}
+    @Operation(summary = "多筆新增 {{entityName}}",
+               description = "多筆新增 {{entityName}} 資料",
+{{/if}}
+               operationId = "saveAll")
+    @PostMapping("/saveAll")
+    public ResponseEntity<List<{{entityName}}>> saveAll(@RequestBody List<{{entityName}}> entityList) {
+        List<{{entityName}}> savedEntityList = {{entityVarName}}Service.saveAll(entityList);
+        return ResponseEntity.ok(savedEntityList);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "串流 根據主鍵 大量 新增或更新 {{entityName}}",
+               description = "與 saveAll 相同，以 JSON 陣列 或 NDJSON 傳入，邊讀取 邊以 JDBC batch 新增或更新，不會 全部載入記憶體，回傳 處理筆數",
+{{else}}
+    @Operation(summary = "串流 多筆新增 {{entityName}}",
+               description = "與 saveAll 相同，以 JSON 陣列 或 NDJSON 傳入，邊讀取 邊以 JDBC batch 新增，不會 全部載入記憶體，回傳 處理筆數",
+{{/if}}
+               operationId = "saveAllStream")
+    @PostMapping(value = "/saveAllStream", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<Integer> saveAllStream(InputStream body) throws IOException {
+        // 以 JsonParser 逐筆 讀取，每 CHUNK_SIZE 筆 寫入一次 (每段 一個交易)，記憶體 只保留 一段
+        int count = 0;
+        List<{{entityName}}> chunk = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                chunk.add(objectMapper.readValue(parser, {{entityName}}.class));
+                if (chunk.size() == CHUNK_SIZE) {
+                    count += {{entityVarName}}Service.{{#if primaryKeyExists}}batchUpsert{{else}}batchInsert{{/if}}(chunk);
+                    chunk.clear();
+                }
+                token = parser.nextToken();
+            }
+            if (token != (array ? JsonToken.END_ARRAY : null)) {
+                throw new IllegalArgumentException("saveAllStream 需傳入 {{entityName}} 的 JSON 陣列 或 NDJSON：" + token);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            count += {{entityVarName}}Service.{{#if primaryKeyExists}}batchUpsert{{else}}batchInsert{{/if}}(chunk);
+        }
+        return ResponseEntity.ok(count);
+    }
+
+    @Operation(summary = "批次新增 {{entityName}}",
+               description = "以 JDBC batch 新增 {{entityName}} 資料，大量資料 分段處理，回傳 處理筆數",
+               operationId = "batchInsert")
+    @PostMapping("/batchInsert")
+    public ResponseEntity<Integer> batchInsert(@RequestBody List<{{entityName}}> entityList) {
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += CHUNK_SIZE) {
+            count += {{entityVarName}}Service.batchInsert(entityList.subList(from, Math.min(from + CHUNK_SIZE, entityList.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 批次 新增或更新 {{entityName}}",
+               description = "以 JDBC batch 新增或更新 {{entityName}} 資料，大量資料 分段處理，回傳 處理筆數",
+               operationId = "batchUpsert")
+    @PostMapping("/batchUpsert")
+    public ResponseEntity<Integer> batchUpsert(@RequestBody List<{{entityName}}> entityList) {
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += CHUNK_SIZE) {
+            count += {{entityVarName}}Service.batchUpsert(entityList.subList(from, Math.min(from + CHUNK_SIZE, entityList.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+
+{{/if}}
+    @Operation(summary = "單筆更新 {{entityName}}",
+               description = "單筆更新 {{entityName}} 資料，變更前的資料 與 資料庫 不符者 不會更新，回傳 更新筆數",
+               operationId = "update")
+    @PostMapping("/update")
+    public ResponseEntity<Integer> update(@RequestBody {{entityName}}.{{entityName}}Update entityUpdate) {
+        return ResponseEntity.ok({{entityVarName}}Service.update(entityUpdate.get{{entityName}}Ori(), entityUpdate.get{{entityName}}New()));
+    }
+{{#if patch}}
+
+    @Operation(summary = "部分更新 {{entityName}}",
+               description = "比對 變更前 與 變更後，只更新 有變更的欄位 (主鍵 不會變更)，有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新，回傳 更新筆數 (無變更 為 0)",
+               operationId = "patch")
+    @PostMapping("/patch")
+    public ResponseEntity<Integer> patch(@RequestBody {{entityName}}.{{entityName}}Update entityUpdate) {
+        return ResponseEntity.ok({{entityVarName}}Service.patch(entityUpdate.get{{entityName}}Ori(), entityUpdate.get{{entityName}}New()));
+    }
+{{/if}}
+
+    @Operation(summary = "批次更新 {{entityName}}",
+               description = "以 JDBC batch 更新 {{entityName}} 資料，變更前的資料 與 資料庫 不符者 不會更新，回傳 實際更新筆數",
+               operationId = "updateAll")
+    @PostMapping("/updateAll")
+    public ResponseEntity<Integer> updateAll(@RequestBody List<{{entityName}}.{{entityName}}Update> updateList) {
+        int count = 0;
+        for (int from = 0; from < updateList.size(); from += CHUNK_SIZE) {
+            count += {{entityVarName}}Service.updateAll(updateList.subList(from, Math.min(from + CHUNK_SIZE, updateList.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+
+{{#if keysetPageable}}
+    @Operation(summary = "分頁查詢 {{entityName}}",
+               description = "依主鍵排序，傳入 上一頁 最後一筆的主鍵 取得 下一頁，第一頁 不需傳入主鍵",
+               operationId = "page")
+    @GetMapping("/page")
+{{#if compositeKey}}
+    public ResponseEntity<List<{{entityName}}>> page({{entityName}}.{{keyClassName}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        // 主鍵 以 查詢參數 傳入 (如：?{{#each primaryKeys}}{{#unless @first}}&{{/unless}}{{fieldName}}=...{{/each}})，未傳入 為 第一頁
+        {{entityName}}.{{keyClassName}} key = afterKey == null || afterKey.get{{singleKey.capitalizedName}}() == null ? null : afterKey;
+{{else}}
+    public ResponseEntity<List<{{entityName}}>> page(@RequestParam(required = false) {{keyType}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        {{keyType}} key = afterKey;
+{{/if}}
+        List<{{entityName}}> entityList = {{entityVarName}}Service.findPage(key, Math.max(1, Math.min(limit, PAGE_MAX_SIZE)));
+        return ResponseEntity.ok(entityList);
+    }
+
+{{/if}}
+{{#each projections}}
+    @Operation(summary = "分頁查詢 {{projectionName}}",
+               description = "只查詢 {{projectionName}} 的欄位，依主鍵排序，傳入 上一頁 最後一筆的主鍵 取得 下一頁",
+               operationId = "page{{projectionName}}")
+    @GetMapping("/page/{{projectionVarName}}")
+{{#if compositeKey}}
+    public ResponseEntity<List<{{projectionName}}>> page{{projectionName}}({{entityName}}.{{keyClassName}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        {{entityName}}.{{keyClassName}} key = afterKey == null || afterKey.get{{singleKey.capitalizedName}}() == null ? null : afterKey;
+{{else}}
+    public ResponseEntity<List<{{projectionName}}>> page{{projectionName}}(@RequestParam(required = false) {{keyType}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        {{keyType}} key = afterKey;
+{{/if}}
+        List<{{projectionName}}> dtoList = {{entityVarName}}Service.find{{projectionName}}Page(key, Math.max(1, Math.min(limit, PAGE_MAX_SIZE)));
+        return ResponseEntity.ok(dtoList);
+    }
+
+{{/each}}
+    @Operation(summary = "串流輸出 全部 {{entityName}}",
+               description = "以 NDJSON (每行一筆 JSON) 逐筆輸出 全部 {{entityName}} 資料，不會 全部載入記憶體",
+               operationId = "stream")
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                {{entityVarName}}Service.streamAll(entity -> {
+                    try {
+                        writer.write(entity);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 查詢 {{entityName}}",
+               description = "根據主鍵查詢 {{entityName}} 資料",
+               operationId = "findById")
+    @PostMapping("/findById")
+    public ResponseEntity<{{entityName}}> findById(@RequestBody {{entityName}}.{{keyClassName}} id) {
+{{#if compositeKey}}
+        {{entityName}} entity = {{entityVarName}}Service.findById(id);
+{{else}}
+        {{entityName}} entity = {{entityVarName}}Service.findById(id.get{{singleKey.capitalizedName}}());
+{{/if}}
+        if (entity == null) {
+            return ResponseEntity.ok(null); // 回傳 HTTP 200 OK 且 資料為 null
+        }
+        return ResponseEntity.ok(entity);  // 回傳 HTTP 200 OK 和資料
+    }
+
+    @Operation(summary = "根據主鍵 批次查詢 {{entityName}}",
+               description = "根據主鍵清單 查詢 {{entityName}} 資料，分段查詢，查無資料的主鍵 不會出現在結果中",
+               operationId = "findAllByIds")
+    @PostMapping("/findAllByIds")
+    public ResponseEntity<List<{{entityName}}>> findAllByIds(@RequestBody List<{{entityName}}.{{keyClassName}}> idList) {
+{{#if compositeKey}}
+        List<{{entityName}}> entityList = {{entityVarName}}Service.findAllByIds(idList);
+{{else}}
+        List<{{keyType}}> ids = new ArrayList<>(idList.size());
+        for ({{entityName}}.{{keyClassName}} id : idList) {
+            ids.add(id.get{{singleKey.capitalizedName}}());
+        }
+        List<{{entityName}}> entityList = {{entityVarName}}Service.findAllByIds(ids);
+{{/if}}
+        return ResponseEntity.ok(entityList);
+    }
+
+    @Operation(summary = "根據主鍵 刪除 {{entityName}} 資料",
+               description = "根據主鍵刪除 {{entityName}} 資料",
+               operationId = "deleteById")
+    @PostMapping("/delete")
+    public ResponseEntity<Void> delete(@RequestBody {{entityName}}.{{keyClassName}} id) {
+{{#if compositeKey}}
+        {{entityVarName}}Service.deleteById(id);
+{{else}}
+        {{entityVarName}}Service.deleteById(id.get{{singleKey.capitalizedName}}());
+{{/if}}
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "根據主鍵 批次刪除 {{entityName}} 資料",
+               description = "根據主鍵清單 刪除 {{entityName}} 資料，大量資料 分段處理，回傳 刪除筆數",
+               operationId = "deleteAll")
+    @PostMapping("/deleteAll")
+    public ResponseEntity<Integer> deleteAll(@RequestBody List<{{entityName}}.{{keyClassName}}> idList) {
+{{#if compositeKey}}
+        List<{{keyType}}> ids = idList;
+{{else}}
+        List<{{keyType}}> ids = new ArrayList<>(idList.size());
+        for ({{entityName}}.{{keyClassName}} id : idList) {
+            ids.add(id.get{{singleKey.capitalizedName}}());
+        }
+{{/if}}
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            count += {{entityVarName}}Service.deleteAllByIds(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return ResponseEntity.ok(count);
+    }
+{{else}}
+    // 無主鍵者，自行處理 查詢 方法
+
+    @Operation(summary = "單筆刪除 {{entityName}}",
+               description = "單筆刪除 {{entityName}} 資料",
+               operationId = "deleteByEntity")
+    @PostMapping("/deleteByEntity")
+    public ResponseEntity<Void> deleteByEntity(@RequestBody {{entityName}}.{{keyClassName}} entity) {
+        {{entityVarName}}Service.deleteByEntity(entity);
+        return ResponseEntity.ok().build();
+    }
+
+{{/if}}
+}
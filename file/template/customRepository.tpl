@@ -0,0 +1,113 @@
+{{! 自訂 SQL 的 repository 介面 }}
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+public interface {{entityName}}CustomRepository {
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    int update({{entityName}} entityOri, {{entityName}} entityNew);
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只 SET 有變更的欄位，主鍵 不會變更 <br/>
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    int patch({{entityName}} entityOri, {{entityName}} entityNew);
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}}，以 JDBC batch 執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 實際更新筆數
+     */
+    int updateAll(List<{{entityName}}.{{entityName}}Update> updateList, int batchSize);
+
+    /**
+     * 批次新增 {{entityVarName}}，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    int batchInsert(List<{{entityName}}> entityList, int batchSize);
+
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}} (keyset pagination)
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}} 清單
+     */
+    List<{{entityName}}> findPage({{keyType}} afterKey, int limit);
+
+{{/if}}
+    /**
+     * 逐筆讀取 全部 {{entityVarName}}，不會 全部載入記憶體
+     * @param consumer 每筆資料的 處理方法
+     */
+    void streamAll(Consumer<{{entityName}}> consumer);
+
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}} 清單
+     */
+    List<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit);
+
+{{/each}}
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    int deleteByKey({{keyType}} id);
+
+    /**
+     * 根據主鍵 批次刪除 {{entityVarName}}
+     * @param ids 主鍵值 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 刪除筆數
+     */
+    int deleteAllByKeys(List<{{keyType}}> ids, int batchSize);
+
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}，以 JDBC 讀取，不經過 JPA 的 persistence context
+     * @param id 主鍵值
+     * @return 查詢到的 {{entityVarName}}，若無則返回 null
+     */
+    {{entityName}} findByKey({{keyType}} id);
+
+    /**
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段查詢，不會 逐筆查詢
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 {{entityVarName}} 清單，查無資料的主鍵 不會出現
+     */
+    List<{{entityName}}> findAllByKeys(Collection<{{keyType}}> ids);
+
+{{/if}}
+{{#if upsertSql}}
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    int batchUpsert(List<{{entityName}}> entityList, int batchSize);
+
+{{/if}}
+}
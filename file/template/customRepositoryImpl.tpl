@@ -0,0 +1,934 @@
+{{! 自訂 SQL 的 repository 實作，使用 NamedParameterJdbcTemplate }}
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+{{#if cached}}
+import javax.persistence.EntityManagerFactory;
+{{/if}}
+{{#if metrics}}
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+{{/if}}
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.function.Consumer;
+{{#if patch}}
+import java.util.concurrent.ConcurrentHashMap;
+{{/if}}
+{{#if versionTime}}
+import java.time.temporal.ChronoUnit;
+{{/if}}
+{{#each typeImports}}
+import {{this}};
+{{/each}}
+
+@Repository
+public class {{entityName}}CustomRepositoryImpl implements {{entityName}}CustomRepository {
+{{#if versionColumn}}
+    // 以 主鍵 與 變更前的 版本 比對，資料已被 其他人 修改時 不會更新；版本 每次更新 都會改變
+{{else}}
+    // 以 變更前的 全部欄位 比對，資料已被 其他人 修改時 不會更新
+{{/if}}
+    // 以 位置參數 執行，參數 由 setUpdateValues 依序 設定，不需 每筆 建立 參數 Map
+    private static final String UPDATE_SQL =
+            "UPDATE {{tableName}} " +
+{{#each columns}}
+            "{{#if @first}}SET {{else}}   ,{{/if}}{{columnName}} = ? " +
+{{/each}}
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{columnName}} = ?{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{#if versionColumn}}
+    /** 變更前的 版本 為 null 時 的 UPDATE SQL，以 IS NULL 比對；不使用 OR 合併，避免 無法使用索引 */
+    private static final String UPDATE_NULL_VERSION_SQL =
+            "UPDATE {{tableName}} " +
+{{#each columns}}
+            "{{#if @first}}SET {{else}}   ,{{/if}}{{columnName}} = ? " +
+{{/each}}
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{#if version}}{{columnName}} IS NULL{{else}}{{columnName}} = ?{{/if}}{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{/if}}
+{{#if patch}}
+    /** patch 的 SET 片段，索引 為 欄位位置 (主鍵{{#if versionColumn}}、版本{{/if}} 除外)；以 位置參數 執行，參數 由 setPatchValues 依序 設定 */
+    private static final String[] PATCH_SET = {
+{{#each patchColumns}}
+            "{{columnName}} = ?"{{#unless @last}},{{/unless}}
+{{/each}}
+    };
+{{#if versionColumn}}
+    // 以 主鍵 與 變更前的 版本 比對，版本 每次更新 都會改變
+    private static final String PATCH_WHERE =
+            " {{versionColumn.columnName}} = ? " +
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{columnName}} = ?{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+    /** 變更前的 版本 為 null 時 的 WHERE 片段 */
+    private static final String PATCH_WHERE_NULL_VERSION =
+            " {{versionColumn.columnName}} = ? " +
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{#if version}}{{columnName}} IS NULL{{else}}{{columnName}} = ?{{/if}}{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{else}}
+    /** patch 的 WHERE 片段，以 變更前的 值 比對 有變更的欄位 */
+    private static final String[] PATCH_CHECK = {
+{{#each patchColumns}}
+            " AND {{columnName}} = ?"{{#unless @last}},{{/unless}}
+{{/each}}
+    };
+    /** 變更前的 值 為 null 時 的 WHERE 片段 */
+    private static final String[] PATCH_CHECK_NULL = {
+{{#each patchColumns}}
+            " AND {{columnName}} IS NULL"{{#unless @last}},{{/unless}}
+{{/each}}
+    };
+    private static final String PATCH_WHERE =
+{{#each primaryKeys}}
+            "{{#if @first}} WHERE {{else}}  AND {{/if}}{{columnName}} = ?{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{/if}}
+    /** 已組合的 patch SQL，以 變更的欄位 與 變更前 為 null 的{{#if versionColumn}} 版本{{else}}欄位{{/if}} 為 key，每種組合 只組合一次 */
+    private static final Map<BitSet, String> PATCH_SQL_CACHE = new ConcurrentHashMap<>();
+    /** patch SQL 快取 的 上限，超過時 不再快取 (每次組合) */
+    private static final int PATCH_SQL_CACHE_LIMIT = 1024;
+{{/if}}
+    private static final String INSERT_SQL =
+{{#each insertSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{#if upsertSql}}
+    private static final String UPSERT_SQL =
+{{#each upsertSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{/if}}
+
+{{#if primaryKeyExists}}
+    private static final String DELETE_SQL =
+            "DELETE FROM {{tableName}} " +
+{{#each primaryKeys}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{columnName}} = :{{fieldName}}{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{#unless compositeKey}}
+    private static final String DELETE_IN_SQL =
+            "DELETE FROM {{tableName}} WHERE {{singleKey.columnName}} IN (:ids)";
+{{/unless}}
+    private static final String FIND_BY_KEY_SQL =
+{{#each findByKeySql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{#if findByKeysOr}}
+    // 後面 串接 各主鍵的條件
+{{/if}}
+    private static final String FIND_BY_KEYS_SQL =
+{{#each findByKeysSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    /** IN 清單 每次最多的筆數 (Oracle 上限 1000) */
+    private static final int IN_LIMIT = 1000;
+{{#if findByKeysOr}}
+    /** 以 OR 串接時 每次最多的主鍵數 (SQL Server 每個語句 最多 2100 個參數) */
+    private static final int OR_LIMIT = 2000 / {{primaryKeyCount}};
+{{/if}}
+{{/if}}
+{{#if keysetPageable}}
+    private static final String PAGE_FIRST_SQL =
+{{#each pageFirstSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    private static final String PAGE_AFTER_SQL =
+{{#each pageAfterSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{/if}}
+    private static final String SELECT_ALL_SQL =
+{{#each selectAllSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    /** 串流查詢 每次 由資料庫 取回的筆數 */
+    private static final int FETCH_SIZE = {{streamFetchSize}};
+{{#each projections}}
+
+    private static final String {{projectionConstant}}_PAGE_FIRST_SQL =
+{{#each pageFirstSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    private static final String {{projectionConstant}}_PAGE_AFTER_SQL =
+{{#each pageAfterSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    private static final RowMapper<{{projectionName}}> {{projectionConstant}}_MAPPER = (rs, rowNum) -> new {{projectionName}}(
+{{#each readers}}
+            {{this}}{{#if @last}});{{else}},{{/if}}
+{{/each}}
+{{/each}}
+
+    /** 以 欄位位置 讀取 查詢結果，不經過 JPA，欄位順序 與 SELECT 相同{{#if batchJob}}；批次匯出 亦使用{{/if}} */
+{{#if allArgsConstructor}}
+    {{#if batchJob}}public{{else}}private{{/if}} static final RowMapper<{{entityName}}> ROW_MAPPER = (rs, rowNum) -> new {{entityName}}(
+{{#each columns}}
+            {{reader}}{{#if @last}});{{else}},{{/if}}
+{{/each}}
+{{else}}
+    // 欄位數 超過 建構子 參數上限，以 setter 設定
+    {{#if batchJob}}public{{else}}private{{/if}} static final RowMapper<{{entityName}}> ROW_MAPPER = (rs, rowNum) -> {
+        {{entityName}} entity = new {{entityName}}();
+{{#each columns}}
+        entity.set{{capitalizedName}}({{reader}});
+{{/each}}
+        return entity;
+    };
+{{/if}}
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+{{#if cached}}
+    private final EntityManagerFactory entityManagerFactory;
+{{/if}}
+{{#if metrics}}
+    // meter 於 建構時 註冊一次，每次呼叫 不再 向 MeterRegistry 查詢
+    private final Timer updateTimer;
+    private final Counter updateConflicts;
+{{#if patch}}
+    private final Timer patchTimer;
+    private final Counter patchConflicts;
+{{/if}}
+    private final Timer updateAllTimer;
+    private final DistributionSummary updateAllSize;
+    private final Counter updateAllConflicts;
+    private final Timer batchInsertTimer;
+    private final DistributionSummary batchInsertSize;
+{{#if upsertSql}}
+    private final Timer batchUpsertTimer;
+    private final DistributionSummary batchUpsertSize;
+{{/if}}
+{{#if primaryKeyExists}}
+    private final DistributionSummary deleteAllByKeysSize;
+    private final DistributionSummary findAllByKeysSize;
+{{/if}}
+{{#if keysetPageable}}
+    private final Timer findPageTimer;
+{{/if}}
+{{#each projections}}
+    private final Timer find{{projectionName}}PageTimer;
+{{/each}}
+{{/if}}
+
+    public {{entityName}}CustomRepositoryImpl(NamedParameterJdbcTemplate namedParameterJdbcTemplate{{#if cached}},
+            EntityManagerFactory entityManagerFactory{{/if}}{{#if metrics}}, MeterRegistry meterRegistry{{/if}}) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+{{#if cached}}
+        this.entityManagerFactory = entityManagerFactory;
+{{/if}}
+{{#if metrics}}
+        updateTimer = timer(meterRegistry, "update");
+        updateConflicts = conflicts(meterRegistry, "update");
+{{#if patch}}
+        patchTimer = timer(meterRegistry, "patch");
+        patchConflicts = conflicts(meterRegistry, "patch");
+{{/if}}
+        updateAllTimer = timer(meterRegistry, "updateAll");
+        updateAllSize = batchSize(meterRegistry, "updateAll");
+        updateAllConflicts = conflicts(meterRegistry, "updateAll");
+        batchInsertTimer = timer(meterRegistry, "batchInsert");
+        batchInsertSize = batchSize(meterRegistry, "batchInsert");
+{{#if upsertSql}}
+        batchUpsertTimer = timer(meterRegistry, "batchUpsert");
+        batchUpsertSize = batchSize(meterRegistry, "batchUpsert");
+{{/if}}
+{{#if primaryKeyExists}}
+        deleteAllByKeysSize = batchSize(meterRegistry, "deleteAllByKeys");
+        findAllByKeysSize = batchSize(meterRegistry, "findAllByKeys");
+{{/if}}
+{{#if keysetPageable}}
+        findPageTimer = timer(meterRegistry, "findPage");
+{{/if}}
+{{#each projections}}
+        find{{projectionName}}PageTimer = timer(meterRegistry, "find{{projectionName}}Page");
+{{/each}}
+{{/if}}
+    }
+
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public int update({{entityName}} entityOri, {{entityName}} entityNew) {
+{{#if metrics}}
+        int rows = updateTimer.record(() -> namedParameterJdbcTemplate.getJdbcOperations().update(
+                {{#if versionColumn}}updateSql(entityOri){{else}}UPDATE_SQL{{/if}}, ps -> setUpdateValues(ps, entityOri, entityNew)));
+        recordConflicts(updateConflicts, 1 - rows);
+{{#if cached}}
+        evictCache();
+{{/if}}
+        return rows;
+{{else}}
+{{#if cached}}
+        int rows = namedParameterJdbcTemplate.getJdbcOperations().update({{#if versionColumn}}updateSql(entityOri){{else}}UPDATE_SQL{{/if}},
+                ps -> setUpdateValues(ps, entityOri, entityNew));
+        evictCache();
+        return rows;
+{{else}}
+        return namedParameterJdbcTemplate.getJdbcOperations().update({{#if versionColumn}}updateSql(entityOri){{else}}UPDATE_SQL{{/if}},
+                ps -> setUpdateValues(ps, entityOri, entityNew));
+{{/if}}
+{{/if}}
+    }
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只 SET 有變更的欄位，主鍵 不會變更 <br/>
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位 (不執行 SQL)、資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public int patch({{entityName}} entityOri, {{entityName}} entityNew) {
+        BitSet changed = new BitSet();
+        for (int i = 0; i < PATCH_SET.length; i++) {
+            Object valueOri = patchValue(entityOri, i);
+            if (!Objects.deepEquals(valueOri, patchValue(entityNew, i))) {
+                changed.set(i);
+{{#unless versionColumn}}
+                if (valueOri == null) {
+                    changed.set(PATCH_SET.length + i);
+                }
+{{/unless}}
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+{{#if versionColumn}}
+        if (entityOri.get{{versionColumn.capitalizedName}}() == null) {
+            changed.set(PATCH_SET.length);
+        }
+{{/if}}
+{{#if metrics}}
+        int rows = patchTimer.record(() -> namedParameterJdbcTemplate.getJdbcOperations().update(patchSql(changed),
+                ps -> setPatchValues(ps, changed, entityOri, entityNew)));
+        recordConflicts(patchConflicts, 1 - rows);
+{{#if cached}}
+        evictCache();
+{{/if}}
+        return rows;
+{{else}}
+{{#if cached}}
+        int rows = namedParameterJdbcTemplate.getJdbcOperations().update(patchSql(changed),
+                ps -> setPatchValues(ps, changed, entityOri, entityNew));
+        evictCache();
+        return rows;
+{{else}}
+        return namedParameterJdbcTemplate.getJdbcOperations().update(patchSql(changed),
+                ps -> setPatchValues(ps, changed, entityOri, entityNew));
+{{/if}}
+{{/if}}
+    }
+
+    /**
+     * 依 有變更的欄位 組合 patch 的 SQL，由 預先產生的 片段 組合，相同組合 由快取 取得
+     * @param changed 有變更的欄位{{#if versionColumn}} (PATCH_SET.length 為 變更前的 版本 為 null){{else}} (PATCH_SET.length 之後 為 變更前 為 null 的欄位){{/if}}
+     * @return UPDATE SQL
+     */
+    private static String patchSql(BitSet changed) {
+        String sql = PATCH_SQL_CACHE.get(changed);
+        if (sql != null) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder("UPDATE {{tableName}} SET ");
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            builder.append(PATCH_SET[i]).append(',');
+        }
+{{#if versionColumn}}
+        builder.append(changed.get(PATCH_SET.length) ? PATCH_WHERE_NULL_VERSION : PATCH_WHERE);
+{{else}}
+        builder.setLength(builder.length() - 1);
+        builder.append(PATCH_WHERE);
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            builder.append(changed.get(PATCH_SET.length + i) ? PATCH_CHECK_NULL[i] : PATCH_CHECK[i]);
+        }
+{{/if}}
+        sql = builder.toString();
+        if (PATCH_SQL_CACHE.size() < PATCH_SQL_CACHE_LIMIT) {
+            PATCH_SQL_CACHE.putIfAbsent((BitSet) changed.clone(), sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 依 patchSql 的 參數順序 設定 有變更的欄位 的 值
+     * @param ps PreparedStatement
+     * @param changed 有變更的欄位，與 patchSql 相同
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @throws SQLException 設定參數時的錯誤
+     */
+    private static void setPatchValues(PreparedStatement ps, BitSet changed, {{entityName}} entityOri, {{entityName}} entityNew)
+            throws SQLException {
+        int index = 0;
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, patchValue(entityNew, i));
+        }
+{{#if versionColumn}}
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, {{versionNext}});
+{{#each updateConditions}}
+{{#if version}}
+        if (!changed.get(PATCH_SET.length)) {
+            StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.get{{capitalizedName}}());
+        }
+{{else}}
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.get{{capitalizedName}}());
+{{/if}}
+{{/each}}
+{{else}}
+{{#each primaryKeys}}
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.get{{capitalizedName}}());
+{{/each}}
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            // 變更前 為 null 者 以 IS NULL 比對，無此參數
+            if (!changed.get(PATCH_SET.length + i)) {
+                StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, patchValue(entityOri, i));
+            }
+        }
+{{/if}}
+    }
+
+    /**
+     * 取得 patch 可變更的欄位 的 值
+     * @param entity {{entityVarName}}
+     * @param index 欄位位置，與 PATCH_SET 相同
+     * @return 欄位值
+     */
+    private static Object patchValue({{entityName}} entity, int index) {
+        switch (index) {
+{{#each patchColumns}}
+            case {{patchIndex}}:
+                return entity.get{{capitalizedName}}();
+{{/each}}
+            default:
+                throw new IndexOutOfBoundsException("patch 欄位位置 超出範圍：" + index);
+        }
+    }
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}}，以 JDBC batch 執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 實際更新筆數
+     */
+    @Override
+    @Transactional
+    public int updateAll(List<{{entityName}}.{{entityName}}Update> updateList, int batchSize) {
+{{#if metrics}}
+        updateAllSize.record(updateList.size());
+        int count = updateAllTimer.record(() -> updateChunks(updateList, batchSize));
+        recordConflicts(updateAllConflicts, updateList.size() - count);
+{{#if cached}}
+        evictCache();
+{{/if}}
+        return count;
+{{else}}
+{{#if cached}}
+        int count = updateChunks(updateList, batchSize);
+        evictCache();
+        return count;
+{{else}}
+        return updateChunks(updateList, batchSize);
+{{/if}}
+{{/if}}
+    }
+
+    /**
+     * 批次新增 {{entityVarName}}，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public int batchInsert(List<{{entityName}}> entityList, int batchSize) {
+{{#if metrics}}
+        batchInsertSize.record(entityList.size());
+        return batchInsertTimer.record(() -> batchUpdate(INSERT_SQL, entityList, batchSize));
+{{else}}
+        return batchUpdate(INSERT_SQL, entityList, batchSize);
+{{/if}}
+    }
+
+{{#if upsertSql}}
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，以 JDBC batch 執行，不會 逐筆查詢 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public int batchUpsert(List<{{entityName}}> entityList, int batchSize) {
+{{#if metrics}}
+        batchUpsertSize.record(entityList.size());
+{{#if cached}}
+        int count = batchUpsertTimer.record(() -> batchUpdate(UPSERT_SQL, entityList, batchSize));
+        evictCache();
+        return count;
+{{else}}
+        return batchUpsertTimer.record(() -> batchUpdate(UPSERT_SQL, entityList, batchSize));
+{{/if}}
+{{else}}
+{{#if cached}}
+        int count = batchUpdate(UPSERT_SQL, entityList, batchSize);
+        evictCache();
+        return count;
+{{else}}
+        return batchUpdate(UPSERT_SQL, entityList, batchSize);
+{{/if}}
+{{/if}}
+    }
+
+{{/if}}
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public int deleteByKey({{keyType}} id) {
+{{#if cached}}
+        int count = namedParameterJdbcTemplate.update(DELETE_SQL, toKeyParams(id));
+        evictCache();
+        return count;
+{{else}}
+        return namedParameterJdbcTemplate.update(DELETE_SQL, toKeyParams(id));
+{{/if}}
+    }
+
+    /**
+{{#if compositeKey}}
+     * 根據主鍵 批次刪除 {{entityVarName}}，以 JDBC batch 執行
+{{else}}
+     * 根據主鍵 批次刪除 {{entityVarName}}，以 IN 清單 分段執行
+{{/if}}
+     * @param ids 主鍵值 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public int deleteAllByKeys(List<{{keyType}}> ids, int batchSize) {
+{{#if metrics}}
+        deleteAllByKeysSize.record(ids.size());
+{{/if}}
+        int count = 0;
+{{#if compositeKey}}
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, ids.size());
+            SqlParameterSource[] batch = new SqlParameterSource[to - from];
+            for (int i = from; i < to; i++) {
+                batch[i - from] = toKeyParams(ids.get(i));
+            }
+            for (int rows : namedParameterJdbcTemplate.batchUpdate(DELETE_SQL, batch)) {
+                // 部分 JDBC driver 的 batch 不回傳筆數，視為 刪除一筆
+                count += rows == Statement.SUCCESS_NO_INFO ? 1 : rows;
+            }
+        }
+{{else}}
+        int chunkSize = Math.min(batchSize, IN_LIMIT);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<{{keyType}}> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            count += namedParameterJdbcTemplate.update(DELETE_IN_SQL, new MapSqlParameterSource("ids", chunk));
+        }
+{{/if}}
+{{#if cached}}
+        evictCache();
+{{/if}}
+        return count;
+    }
+
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}，以 JDBC 讀取，不經過 JPA 的 persistence context
+     * @param id 主鍵值
+     * @return 查詢到的 {{entityVarName}}，若無則返回 null
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public {{entityName}} findByKey({{keyType}} id) {
+        List<{{entityName}}> entityList = namedParameterJdbcTemplate.query(FIND_BY_KEY_SQL, toKeyParams(id), ROW_MAPPER);
+        return entityList.isEmpty() ? null : entityList.get(0);
+    }
+
+    /**
+{{#if findByKeysOr}}
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段 以 OR 串接 各主鍵的條件，每段 一次查詢
+{{else}}
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段 以 IN 清單 查詢，每段 一次查詢
+{{/if}}
+     * @param ids 主鍵值 清單，重複者 只查詢一次
+     * @return 查詢到的 {{entityVarName}} 清單，查無資料的主鍵 不會出現，順序 不保證 與 主鍵值 相同
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<{{entityName}}> findAllByKeys(Collection<{{keyType}}> ids) {
+{{#if metrics}}
+        findAllByKeysSize.record(ids.size());
+{{/if}}
+        List<{{keyType}}> keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<{{entityName}}> entityList = new ArrayList<>(keys.size());
+{{#if findByKeysOr}}
+        for (int from = 0; from < keys.size(); from += OR_LIMIT) {
+            List<{{keyType}}> chunk = keys.subList(from, Math.min(from + OR_LIMIT, keys.size()));
+            StringBuilder sql = new StringBuilder(FIND_BY_KEYS_SQL);
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            for (int i = 0; i < chunk.size(); i++) {
+                {{keyType}} id = chunk.get(i);
+                sql.append(i == 0 ? "(" : " OR (");
+{{#each primaryKeys}}
+                sql.append("{{#unless @first}} AND {{/unless}}{{columnName}} = :{{fieldName}}_").append(i);
+                params.addValue("{{fieldName}}_" + i, id.get{{capitalizedName}}());
+{{/each}}
+                sql.append(")");
+            }
+            entityList.addAll(namedParameterJdbcTemplate.query(sql.toString(), params, ROW_MAPPER));
+        }
+{{else}}
+        for (int from = 0; from < keys.size(); from += IN_LIMIT) {
+            List<{{keyType}}> chunk = keys.subList(from, Math.min(from + IN_LIMIT, keys.size()));
+{{#if compositeKey}}
+            // 多欄位 IN 的參數 為 Object[] 清單，展開為 ((?, ?), (?, ?))
+            List<Object[]> values = new ArrayList<>(chunk.size());
+            for ({{keyType}} id : chunk) {
+                values.add(new Object[]{ {{#each primaryKeys}}{{#unless @first}}, {{/unless}}id.get{{capitalizedName}}(){{/each}} });
+            }
+            entityList.addAll(namedParameterJdbcTemplate.query(FIND_BY_KEYS_SQL, new MapSqlParameterSource("ids", values), ROW_MAPPER));
+{{else}}
+            entityList.addAll(namedParameterJdbcTemplate.query(FIND_BY_KEYS_SQL, new MapSqlParameterSource("ids", chunk), ROW_MAPPER));
+{{/if}}
+        }
+{{/if}}
+        return entityList;
+    }
+
+{{/if}}
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}} (keyset pagination)，不使用 OFFSET，越後面的頁數 也不會 變慢
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}} 清單
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<{{entityName}}> findPage({{keyType}} afterKey, int limit) {
+{{#if metrics}}
+        return findPageTimer.record(() -> afterKey == null
+                ? namedParameterJdbcTemplate.query(PAGE_FIRST_SQL, new MapSqlParameterSource("limit", limit), ROW_MAPPER)
+                : namedParameterJdbcTemplate.query(PAGE_AFTER_SQL, toKeyParams(afterKey).addValue("limit", limit), ROW_MAPPER));
+{{else}}
+        if (afterKey == null) {
+            return namedParameterJdbcTemplate.query(PAGE_FIRST_SQL, new MapSqlParameterSource("limit", limit), ROW_MAPPER);
+        }
+        return namedParameterJdbcTemplate.query(PAGE_AFTER_SQL, toKeyParams(afterKey).addValue("limit", limit), ROW_MAPPER);
+{{/if}}
+    }
+
+{{/if}}
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}} 清單
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit) {
+{{#if metrics}}
+        return find{{projectionName}}PageTimer.record(() -> afterKey == null
+                ? namedParameterJdbcTemplate.query({{projectionConstant}}_PAGE_FIRST_SQL, new MapSqlParameterSource("limit", limit),
+                        {{projectionConstant}}_MAPPER)
+                : namedParameterJdbcTemplate.query({{projectionConstant}}_PAGE_AFTER_SQL, toKeyParams(afterKey).addValue("limit", limit),
+                        {{projectionConstant}}_MAPPER));
+{{else}}
+        if (afterKey == null) {
+            return namedParameterJdbcTemplate.query({{projectionConstant}}_PAGE_FIRST_SQL, new MapSqlParameterSource("limit", limit),
+                    {{projectionConstant}}_MAPPER);
+        }
+        return namedParameterJdbcTemplate.query({{projectionConstant}}_PAGE_AFTER_SQL, toKeyParams(afterKey).addValue("limit", limit),
+                {{projectionConstant}}_MAPPER);
+{{/if}}
+    }
+
+{{/each}}
+    /**
+     * 逐筆讀取 全部 {{entityVarName}}，每次 由資料庫 取回 FETCH_SIZE 筆，不會 全部載入記憶體 <br/>
+     * PostgreSQL 需在 交易中 fetch size 才有作用；MySQL 需在 連線設定 加上 useCursorFetch=true
+     * @param consumer 每筆資料的 處理方法
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<{{entityName}}> consumer) {
+        namedParameterJdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+{{#each primitiveGetters}}
+    /**
+     * 讀取 {{javaType}} 欄位，rs.{{getter}} 在 NULL 時 回傳 預設值，需以 wasNull 判斷
+     * @param rs 查詢結果
+     * @param index 欄位位置 (從 1 開始)
+     * @return 欄位值，NULL 時 為 null
+     * @throws SQLException 讀取欄位時的錯誤
+     */
+    private static {{javaType}} get{{javaType}}(ResultSet rs, int index) throws SQLException {
+        {{primitive}} value = rs.{{getter}}(index);
+        return rs.wasNull() ? null : value;
+    }
+
+{{/each}}
+{{#if cached}}
+    /**
+     * 以 JDBC 修改資料 不會經過 Hibernate，清除 {{entityVarName}} 的 二級快取，避免 讀到 舊資料
+     */
+    private void evictCache() {
+        entityManagerFactory.getCache().evict({{entityName}}.class);
+    }
+
+{{/if}}
+{{#if metrics}}
+    /**
+     * 註冊 方法 的 執行時間 (含 histogram)，只計 SQL 的 執行，不含 service 的 交易 與 快取
+     * @param meterRegistry MeterRegistry
+     * @param operation 方法名稱
+     * @return Timer
+     */
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("db.repository")
+                .tags("table", "{{tableName}}", "operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 註冊 批次方法 每次 傳入的筆數，依 table 與 方法 分別統計 分佈
+     * @param meterRegistry MeterRegistry
+     * @param operation 方法名稱
+     * @return DistributionSummary
+     */
+    private static DistributionSummary batchSize(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("db.batch.size")
+                .baseUnit("rows")
+                .tags("table", "{{tableName}}", "operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 註冊 變更前的資料 與 資料庫 不符 而 未更新 的 筆數
+     * @param meterRegistry MeterRegistry
+     * @param operation 方法名稱
+     * @return Counter
+     */
+    private static Counter conflicts(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("db.update.conflicts")
+                .tags("table", "{{tableName}}", "operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 記錄 未更新 的 筆數，0 筆 不記錄
+     * @param conflicts 未更新 筆數 的 Counter
+     * @param count 未更新 的 筆數
+     */
+    private static void recordConflicts(Counter conflicts, int count) {
+        if (count > 0) {
+            conflicts.increment(count);
+        }
+    }
+
+{{/if}}
+    /**
+     * 每 batchSize 筆 送出一次 UPDATE 的 JDBC batch
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @param batchSize 每批 送出的筆數
+     * @return 實際更新筆數
+     */
+    private int updateChunks(List<{{entityName}}.{{entityName}}Update> updateList, int batchSize) {
+        int count = 0;
+        for (int from = 0; from < updateList.size(); from += batchSize) {
+            List<{{entityName}}.{{entityName}}Update> chunk = updateList.subList(from, Math.min(from + batchSize, updateList.size()));
+{{#if versionColumn}}
+            // 變更前的 版本 為 null 者 使用 不同的 SQL，分為 兩個 batch
+            List<{{entityName}}.{{entityName}}Update> versioned = new ArrayList<>(chunk.size());
+            List<{{entityName}}.{{entityName}}Update> nullVersion = new ArrayList<>();
+            for ({{entityName}}.{{entityName}}Update entityUpdate : chunk) {
+                (entityUpdate.get{{entityName}}Ori().get{{versionColumn.capitalizedName}}() == null ? nullVersion : versioned).add(entityUpdate);
+            }
+            count += updateBatch(UPDATE_SQL, versioned);
+            count += updateBatch(UPDATE_NULL_VERSION_SQL, nullVersion);
+{{else}}
+            count += updateBatch(UPDATE_SQL, chunk);
+{{/if}}
+        }
+        return count;
+    }
+
+    /**
+     * 以 一次 JDBC batch 執行 UPDATE
+     * @param sql 執行的 UPDATE SQL
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @return 實際更新筆數
+     */
+    private int updateBatch(String sql, List<{{entityName}}.{{entityName}}Update> updateList) {
+        if (updateList.isEmpty()) {
+            return 0;
+        }
+        // 每筆 直接 設定 PreparedStatement 的 參數，不建立 參數物件
+        int[] results = namedParameterJdbcTemplate.getJdbcOperations().batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                {{entityName}}.{{entityName}}Update entityUpdate = updateList.get(i);
+                setUpdateValues(ps, entityUpdate.get{{entityName}}Ori(), entityUpdate.get{{entityName}}New());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return updateList.size();
+            }
+        });
+        int count = 0;
+        for (int rows : results) {
+            // 部分 JDBC driver 的 batch 不回傳筆數，視為 更新一筆
+            count += rows == Statement.SUCCESS_NO_INFO ? 1 : rows;
+        }
+        return count;
+    }
+
+{{#if versionColumn}}
+    /**
+     * 依 變更前的 版本 選擇 UPDATE SQL，版本 為 null 者 以 IS NULL 比對
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @return UPDATE SQL
+     */
+    private static String updateSql({{entityName}} entityOri) {
+        return entityOri.get{{versionColumn.capitalizedName}}() == null ? UPDATE_NULL_VERSION_SQL : UPDATE_SQL;
+    }
+
+{{/if}}
+    /**
+     * 每 batchSize 筆 送出一次 JDBC batch
+     * @param sql 執行的 SQL
+     * @param entityList 資料清單
+     * @param batchSize 每批 送出的筆數
+     * @return 處理筆數
+     */
+    private int batchUpdate(String sql, List<{{entityName}}> entityList, int batchSize) {
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, entityList.size());
+            SqlParameterSource[] batch = new SqlParameterSource[to - from];
+            for (int i = from; i < to; i++) {
+                batch[i - from] = toParams(entityList.get(i));
+            }
+            namedParameterJdbcTemplate.batchUpdate(sql, batch);
+            count += batch.length;
+        }
+        return count;
+    }
+
+    /**
+     * 依 UPDATE_SQL{{#if versionColumn}}、UPDATE_NULL_VERSION_SQL{{/if}} 的 參數順序 設定 變更後的值 與 變更前的值
+{{#if versionColumn}}
+     * 版本 不使用 變更後的值，由 變更前的 版本 產生 新版本；變更前的 版本 為 null 時 以 IS NULL 比對，無此參數
+{{/if}}
+     * @param ps PreparedStatement
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @throws SQLException 設定參數時的錯誤
+     */
+    private static void setUpdateValues(PreparedStatement ps, {{entityName}} entityOri, {{entityName}} entityNew) throws SQLException {
+        int index = 0;
+{{#each columns}}
+{{#if version}}
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, {{versionNext}});
+{{else}}
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityNew.get{{capitalizedName}}());
+{{/if}}
+{{/each}}
+{{#each updateConditions}}
+{{#if version}}
+        if (entityOri.get{{capitalizedName}}() != null) {
+            StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.get{{capitalizedName}}());
+        }
+{{else}}
+        StatementCreatorUtils.setParameterValue(ps, ++index, SqlTypeValue.TYPE_UNKNOWN, entityOri.get{{capitalizedName}}());
+{{/if}}
+{{/each}}
+    }
+
+{{#if keyParams}}
+    /**
+     * 將 主鍵值 轉為 SQL 參數，參數名稱 為 欄位名稱
+     * @param id 主鍵值
+     * @return SQL 參數
+     */
+    private static MapSqlParameterSource toKeyParams({{keyType}} id) {
+{{#if compositeKey}}
+        MapSqlParameterSource params = new MapSqlParameterSource();
+{{#each primaryKeys}}
+        params.addValue("{{fieldName}}", id.get{{capitalizedName}}());
+{{/each}}
+        return params;
+{{else}}
+        return new MapSqlParameterSource("{{singleKey.fieldName}}", id);
+{{/if}}
+    }
+
+{{/if}}
+    /**
+     * 將 {{entityVarName}} 轉為 SQL 參數，參數名稱 為 欄位名稱
+{{#if versionColumn}}
+{{#if versionTime}}
+     * 版本 一律 為 目前時間
+{{else}}
+     * 版本 未指定時 為 初始值
+{{/if}}
+{{/if}}
+     * @param entity {{entityVarName}}
+     * @return SQL 參數
+     */
+    private static MapSqlParameterSource toParams({{entityName}} entity) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+{{#each columns}}
+{{#if version}}
+        params.addValue("{{fieldName}}", {{versionValue}});
+{{else}}
+        params.addValue("{{fieldName}}", entity.get{{capitalizedName}}());
+{{/if}}
+{{/each}}
+        return params;
+    }
+
+}
@@ -0,0 +1,91 @@
+{{! 限制 同時 存取資料庫 的 執行緒數，db.max.concurrency 大於 0 時 產生，所有 table 共用 }}
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 資料庫 存取的 bulkhead，每個 ServiceImpl 一個 <br/>
+ * 先取得 permit 再開始交易，等待 permit 時 不佔用 資料庫連線，避免 大量 virtual thread 同時 取用 連線池 <br/>
+ * Semaphore 等待時 不會 pin 住 virtual thread 的 載體執行緒
+ */
+public class DbBulkhead {
+    private final String name;
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+
+    /**
+     * @param name 名稱，用於 錯誤訊息 (如：entity 名稱)
+     * @param maxConcurrency 同時 存取資料庫 的 上限
+     * @param timeoutMillis 等待 permit 的 最長毫秒數
+     * @param transactionManager 交易管理
+     */
+    public DbBulkhead(String name, int maxConcurrency, long timeoutMillis, PlatformTransactionManager transactionManager) {
+        this.name = name;
+        // 公平模式，依 等待順序 取得，避免 部分請求 一直等不到
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutMillis = timeoutMillis;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 取得 permit 後 在 交易中 執行
+     * @param call 資料庫 存取
+     * @return 執行結果
+     */
+    public <T> T write(Supplier<T> call) {
+        return execute(writeTemplate, call);
+    }
+
+    /**
+     * 取得 permit 後 在 交易中 執行
+     * @param call 資料庫 存取
+     */
+    public void write(Runnable call) {
+        execute(writeTemplate, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * 取得 permit 後 在 唯讀交易中 執行
+     * @param call 資料庫 存取
+     * @return 執行結果
+     */
+    public <T> T read(Supplier<T> call) {
+        return execute(readTemplate, call);
+    }
+
+    /**
+     * 取得 permit 後 在 唯讀交易中 執行
+     * @param call 資料庫 存取
+     */
+    public void read(Runnable call) {
+        execute(readTemplate, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private <T> T execute(TransactionTemplate template, Supplier<T> call) {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException(name + " 等待 資料庫存取 逾時 (" + timeoutMillis + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " 等待 資料庫存取 被中斷", e);
+        }
+        try {
+            return template.execute(status -> call.get());
+        } finally {
+            permits.release();
+        }
+    }
+}
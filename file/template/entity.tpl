@@ -0,0 +1,113 @@
+{{! Entity 類別，內含 主鍵 Key 類 與 update 類 }}
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Column;
+{{#if trimConverterUsed}}
+import javax.persistence.Convert;
+{{/if}}
+import javax.persistence.Table;
+{{#if compositeKey}}
+import javax.persistence.IdClass;
+{{/if}}
+{{#if versionColumn}}
+import javax.persistence.Version;
+{{/if}}
+{{#if cached}}
+import javax.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+{{/if}}
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.io.Serializable;
+import java.util.Objects;
+import java.time.LocalDateTime;
+{{#each imports}}
+import {{this}};
+{{/each}}
+
+@Entity
+@Table(name = "{{tableName}}")
+{{#if compositeKey}}
+@IdClass({{entityName}}.{{keyClassName}}.class)
+{{/if}}
+{{#if cached}}
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+{{/if}}
+{{#if description}}
+@Schema(description = "{{description}}")
+{{/if}}
+public class {{entityName}} implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+{{#each columns}}
+{{#if primaryKey}}
+    @Id
+{{/if}}
+{{#if description}}
+    @Schema(description = "{{description}}")
+{{/if}}
+    @Column(name = "{{columnName}}")
+{{#if version}}
+    @Version
+{{/if}}
+{{#if trimConverter}}
+    @Convert(converter = TrimConverter.class)
+{{/if}}
+    private {{javaType}} {{fieldName}};
+
+{{/each}}
+
+    public {{entityName}}() {}
+{{#if allArgsConstructor}}
+
+    public {{entityName}}({{#each columns}}{{#unless @first}}, {{/unless}}{{javaType}} {{fieldName}}{{/each}}) {
+{{#each columns}}
+        this.{{fieldName}} = {{fieldName}};
+{{/each}}
+    }
+{{/if}}
+
+{{#each columns}}
+    public {{javaType}} get{{capitalizedName}}() {
+{{#if trimGetter}}
+        return {{fieldName}}!= null ? {{fieldName}}.trim() : null;
+{{else}}
+        return {{fieldName}};
+{{/if}}
+    }
+
+    public void set{{capitalizedName}}({{javaType}} {{fieldName}}) {
+        this.{{fieldName}} = {{fieldName}};
+    }
+
+{{/each}}
+{{#if compositeKey}}
+    /**
+     * @return 本筆資料的 主鍵
+     */
+    public {{keyClassName}} toKey() {
+        {{keyClassName}} key = new {{keyClassName}}();
+{{#each primaryKeys}}
+        key.set{{capitalizedName}}(get{{capitalizedName}}());
+{{/each}}
+        return key;
+    }
+
+{{/if}}
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        {{entityName}} that = ({{entityName}}) o;
+        return {{#each primaryKeys}}{{#unless @first}} && {{/unless}}Objects.equals({{fieldName}}, that.{{fieldName}}){{else}}true{{/each}};
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash({{#each primaryKeys}}{{#unless @first}}, {{/unless}}{{fieldName}}{{/each}});
+    }
+
+{{> entityKey}}
+{{> entityUpdate}}
+}
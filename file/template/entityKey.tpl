@@ -0,0 +1,35 @@
+{{! Entity 的 內部 Key 類 }}
+    // 主鍵 實體類
+    public static class {{keyClassName}} implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+{{#each primaryKeys}}
+        private {{javaType}} {{fieldName}};
+{{/each}}
+
+        public {{keyClassName}}() {}
+
+{{#each primaryKeys}}
+        public {{javaType}} get{{capitalizedName}}() {
+            return {{fieldName}};
+        }
+
+        public void set{{capitalizedName}}({{javaType}} {{fieldName}}) {
+            this.{{fieldName}} = {{fieldName}};
+        }
+
+{{/each}}
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            {{keyClassName}} that = ({{keyClassName}}) o;
+            return {{#each primaryKeys}}{{#unless @first}} && {{/unless}}Objects.equals({{fieldName}}, that.{{fieldName}}){{/each}};
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash({{#each primaryKeys}}{{#unless @first}}, {{/unless}}{{fieldName}}{{/each}});
+        }
+    }
+
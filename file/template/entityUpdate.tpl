@@ -0,0 +1,25 @@
+{{! Entity 的 內部 update 類，包含 變更前 與 變更後 的資料 }}
+    // update 實體類
+    public static class {{entityName}}Update implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private {{entityName}} {{entityVarName}}Ori;
+        private {{entityName}} {{entityVarName}}New;
+
+        public {{entityName}} get{{entityName}}Ori() {
+            return {{entityVarName}}Ori;
+        }
+
+        public void set{{entityName}}Ori({{entityName}} {{entityVarName}}Ori) {
+            this.{{entityVarName}}Ori = {{entityVarName}}Ori;
+        }
+
+        public {{entityName}} get{{entityName}}New() {
+            return {{entityVarName}}New;
+        }
+
+        public void set{{entityName}}New({{entityName}} {{entityVarName}}New) {
+            this.{{entityVarName}}New = {{entityVarName}}New;
+        }
+
+    }
@@ -0,0 +1,18 @@
+{{! Micrometer 設定，metrics.enabled=true 時 產生，所有 table 共用 }}
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    /**
+     * 啟用 serviceImpl 方法上的 @Timed，以 db.operation 記錄 各 table、各方法 的 執行時間 (含 histogram，可計算 百分位數)
+     * @param meterRegistry Micrometer 的 registry
+     * @return @Timed 的 aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+{{! projection DTO，只含 部分欄位，用於 列表查詢 }}
+import io.swagger.v3.oas.annotations.media.Schema;
+{{#each imports}}
+import {{this}};
+{{/each}}
+
+{{#if description}}
+@Schema(description = "{{description}} ({{projectionName}})")
+{{/if}}
+public class {{projectionName}} {
+{{#each columns}}
+{{#if description}}
+    @Schema(description = "{{description}}")
+{{/if}}
+    private final {{javaType}} {{fieldName}};
+{{/each}}
+
+    public {{projectionName}}({{#each columns}}{{#unless @first}}, {{/unless}}{{javaType}} {{fieldName}}{{/each}}) {
+{{#each columns}}
+        this.{{fieldName}} = {{fieldName}};
+{{/each}}
+    }
+{{#each columns}}
+
+    public {{javaType}} get{{capitalizedName}}() {
+{{#if trimGetter}}
+        return {{fieldName}}!= null ? {{fieldName}}.trim() : null;
+{{else}}
+        return {{fieldName}};
+{{/if}}
+    }
+{{/each}}
+}
@@ -0,0 +1,229 @@
+{{! WebFlux RestController，主鍵 一律以 Key 類 接收，回傳 Mono / Flux，不佔用 執行緒 等待資料庫 }}
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.Parameter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.List;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+@RestController
+@RequestMapping("/api/{{apiName}}")
+{{#if description}}
+@Tag(name = "{{entityName}} Controller", description = "{{description}} API 接口")
+{{else}}
+@Tag(name = "{{entityName}} Controller")
+{{/if}}
+public class {{entityName}}Controller {
+    /** 大量資料 每段的筆數，每段 一個交易 */
+    private static final int CHUNK_SIZE = {{batchChunkSize}};
+{{#if keysetPageable}}
+    /** 分頁查詢 每頁 最多的筆數 */
+    private static final int PAGE_MAX_SIZE = {{pageMaxSize}};
+{{/if}}
+    private static final String NDJSON = "application/x-ndjson";
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private {{entityName}}Service {{entityVarName}}Service;
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 新增或更新 {{entityName}}",
+               description = "根據主鍵，若有資料則更新，無資料則新增",
+{{else}}
+    @Operation(summary = "單筆新增 {{entityName}}",
+               description = "單筆新增 {{entityName}} 資料",
+{{/if}}
+               operationId = "save")
+    @PostMapping("/save")
+    public Mono<{{entityName}}> save(@RequestBody {{entityName}} entity) {
+        return {{entityVarName}}Service.save(entity);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 大量 新增或更新 {{entityName}}",
+               description = "根據主鍵，若有資料則更新，無資料則新增",
+{{else}}
+    @Operation(summary = "多筆新增 {{entityName}}",
+               description = "多筆新增 {{entityName}} 資料",
+{{/if}}
+               operationId = "saveAll")
+    @PostMapping("/saveAll")
+    public Flux<{{entityName}}> saveAll(@RequestBody List<{{entityName}}> entityList) {
+        return {{entityVarName}}Service.saveAll(entityList);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "串流 根據主鍵 大量 新增或更新 {{entityName}}",
+               description = "與 saveAll 相同，邊接收 邊新增或更新 (JSON 陣列 或 NDJSON)，不會 全部載入記憶體，回傳 處理筆數",
+{{else}}
+    @Operation(summary = "串流 多筆新增 {{entityName}}",
+               description = "與 saveAll 相同，邊接收 邊新增 (JSON 陣列 或 NDJSON)，不會 全部載入記憶體，回傳 處理筆數",
+{{/if}}
+               operationId = "saveAllStream")
+    @PostMapping("/saveAllStream")
+    public Mono<Integer> saveAllStream(@RequestBody Flux<{{entityName}}> entities) {
+        return entities.buffer(CHUNK_SIZE).concatMap({{entityVarName}}Service::{{#if primaryKeyExists}}batchUpsert{{else}}batchInsert{{/if}}).reduce(0, Integer::sum);
+    }
+
+    @Operation(summary = "批次新增 {{entityName}}",
+               description = "邊接收 邊新增 {{entityName}} 資料 (JSON 陣列 或 NDJSON)，大量資料 分段處理，回傳 處理筆數",
+               operationId = "batchInsert")
+    @PostMapping("/batchInsert")
+    public Mono<Integer> batchInsert(@RequestBody Flux<{{entityName}}> entities) {
+        return entities.buffer(CHUNK_SIZE).concatMap({{entityVarName}}Service::batchInsert).reduce(0, Integer::sum);
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 批次 新增或更新 {{entityName}}",
+               description = "邊接收 邊新增或更新 {{entityName}} 資料 (JSON 陣列 或 NDJSON)，大量資料 分段處理，回傳 處理筆數",
+               operationId = "batchUpsert")
+    @PostMapping("/batchUpsert")
+    public Mono<Integer> batchUpsert(@RequestBody Flux<{{entityName}}> entities) {
+        return entities.buffer(CHUNK_SIZE).concatMap({{entityVarName}}Service::batchUpsert).reduce(0, Integer::sum);
+    }
+
+{{/if}}
+    @Operation(summary = "單筆更新 {{entityName}}",
+               description = "單筆更新 {{entityName}} 資料，變更前的資料 與 資料庫 不符者 不會更新，回傳 更新筆數",
+               operationId = "update")
+    @PostMapping("/update")
+    public Mono<Integer> update(@RequestBody {{entityName}}.{{entityName}}Update entityUpdate) {
+        return {{entityVarName}}Service.update(entityUpdate.get{{entityName}}Ori(), entityUpdate.get{{entityName}}New());
+    }
+{{#if patch}}
+
+    @Operation(summary = "部分更新 {{entityName}}",
+               description = "比對 變更前 與 變更後，只更新 有變更的欄位 (主鍵 不會變更)，有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新，回傳 更新筆數 (無變更 為 0)",
+               operationId = "patch")
+    @PostMapping("/patch")
+    public Mono<Integer> patch(@RequestBody {{entityName}}.{{entityName}}Update entityUpdate) {
+        return {{entityVarName}}Service.patch(entityUpdate.get{{entityName}}Ori(), entityUpdate.get{{entityName}}New());
+    }
+{{/if}}
+
+    @Operation(summary = "批次更新 {{entityName}}",
+               description = "邊接收 邊更新 {{entityName}} 資料，變更前的資料 與 資料庫 不符者 不會更新，回傳 實際更新筆數",
+               operationId = "updateAll")
+    @PostMapping("/updateAll")
+    public Mono<Integer> updateAll(@RequestBody Flux<{{entityName}}.{{entityName}}Update> updates) {
+        return updates.buffer(CHUNK_SIZE).concatMap({{entityVarName}}Service::updateAll).reduce(0, Integer::sum);
+    }
+
+{{#if keysetPageable}}
+    @Operation(summary = "分頁查詢 {{entityName}}",
+               description = "依主鍵排序，傳入 上一頁 最後一筆的主鍵 取得 下一頁，第一頁 不需傳入主鍵",
+               operationId = "page")
+    @GetMapping("/page")
+{{#if compositeKey}}
+    public Flux<{{entityName}}> page({{entityName}}.{{keyClassName}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        // 主鍵 以 查詢參數 傳入 (如：?{{#each primaryKeys}}{{#unless @first}}&{{/unless}}{{fieldName}}=...{{/each}})，未傳入 為 第一頁
+        {{entityName}}.{{keyClassName}} key = afterKey == null || afterKey.get{{singleKey.capitalizedName}}() == null ? null : afterKey;
+{{else}}
+    public Flux<{{entityName}}> page(@RequestParam(required = false) {{keyType}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        {{keyType}} key = afterKey;
+{{/if}}
+        return {{entityVarName}}Service.findPage(key, Math.max(1, Math.min(limit, PAGE_MAX_SIZE)));
+    }
+
+{{/if}}
+{{#each projections}}
+    @Operation(summary = "分頁查詢 {{projectionName}}",
+               description = "只查詢 {{projectionName}} 的欄位，依主鍵排序，傳入 上一頁 最後一筆的主鍵 取得 下一頁",
+               operationId = "page{{projectionName}}")
+    @GetMapping("/page/{{projectionVarName}}")
+{{#if compositeKey}}
+    public Flux<{{projectionName}}> page{{projectionName}}({{entityName}}.{{keyClassName}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        {{entityName}}.{{keyClassName}} key = afterKey == null || afterKey.get{{singleKey.capitalizedName}}() == null ? null : afterKey;
+{{else}}
+    public Flux<{{projectionName}}> page{{projectionName}}(@RequestParam(required = false) {{keyType}} afterKey, @RequestParam(defaultValue = "100") int limit) {
+        {{keyType}} key = afterKey;
+{{/if}}
+        return {{entityVarName}}Service.find{{projectionName}}Page(key, Math.max(1, Math.min(limit, PAGE_MAX_SIZE)));
+    }
+
+{{/each}}
+    @Operation(summary = "串流輸出 全部 {{entityName}}",
+               description = "以 NDJSON (每行一筆 JSON) 逐筆輸出 全部 {{entityName}} 資料，依 用戶端 讀取速度 取回資料，不會 全部載入記憶體",
+               operationId = "stream")
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public Flux<{{entityName}}> stream() {
+        return {{entityVarName}}Service.streamAll();
+    }
+
+{{#if primaryKeyExists}}
+    @Operation(summary = "根據主鍵 查詢 {{entityName}}",
+               description = "根據主鍵查詢 {{entityName}} 資料，查無資料時 回傳 HTTP 200 OK 且 無內容",
+               operationId = "findById")
+    @PostMapping("/findById")
+    public Mono<{{entityName}}> findById(@RequestBody {{entityName}}.{{keyClassName}} id) {
+{{#if compositeKey}}
+        return {{entityVarName}}Service.findById(id);
+{{else}}
+        return {{entityVarName}}Service.findById(id.get{{singleKey.capitalizedName}}());
+{{/if}}
+    }
+
+    @Operation(summary = "根據主鍵 批次查詢 {{entityName}}",
+               description = "根據主鍵清單 查詢 {{entityName}} 資料，分段查詢，查無資料的主鍵 不會出現在結果中",
+               operationId = "findAllByIds")
+    @PostMapping("/findAllByIds")
+    public Flux<{{entityName}}> findAllByIds(@RequestBody List<{{entityName}}.{{keyClassName}}> idList) {
+{{#if compositeKey}}
+        return {{entityVarName}}Service.findAllByIds(idList);
+{{else}}
+        List<{{keyType}}> ids = new ArrayList<>(idList.size());
+        for ({{entityName}}.{{keyClassName}} id : idList) {
+            ids.add(id.get{{singleKey.capitalizedName}}());
+        }
+        return {{entityVarName}}Service.findAllByIds(ids);
+{{/if}}
+    }
+
+    @Operation(summary = "根據主鍵 刪除 {{entityName}} 資料",
+               description = "根據主鍵刪除 {{entityName}} 資料",
+               operationId = "deleteById")
+    @PostMapping("/delete")
+    public Mono<Void> delete(@RequestBody {{entityName}}.{{keyClassName}} id) {
+{{#if compositeKey}}
+        return {{entityVarName}}Service.deleteById(id).then();
+{{else}}
+        return {{entityVarName}}Service.deleteById(id.get{{singleKey.capitalizedName}}()).then();
+{{/if}}
+    }
+
+    @Operation(summary = "根據主鍵 批次刪除 {{entityName}} 資料",
+               description = "邊接收 邊刪除 {{entityName}} 資料，大量資料 分段處理，回傳 刪除筆數",
+               operationId = "deleteAll")
+    @PostMapping("/deleteAll")
+    public Mono<Integer> deleteAll(@RequestBody Flux<{{entityName}}.{{keyClassName}}> ids) {
+{{#if compositeKey}}
+        return ids.buffer(CHUNK_SIZE).concatMap({{entityVarName}}Service::deleteAllByIds).reduce(0, Integer::sum);
+{{else}}
+        return ids.map({{entityName}}.{{keyClassName}}::get{{singleKey.capitalizedName}})
+                .buffer(CHUNK_SIZE)
+                .concatMap({{entityVarName}}Service::deleteAllByIds)
+                .reduce(0, Integer::sum);
+{{/if}}
+    }
+{{else}}
+    // 無主鍵者，自行處理 查詢 方法
+
+    @Operation(summary = "單筆刪除 {{entityName}}",
+               description = "單筆刪除 {{entityName}} 資料",
+               operationId = "deleteByEntity")
+    @PostMapping("/deleteByEntity")
+    public Mono<Void> deleteByEntity(@RequestBody {{entityName}}.{{keyClassName}} entity) {
+        return {{entityVarName}}Service.deleteByEntity(entity);
+    }
+
+{{/if}}
+}
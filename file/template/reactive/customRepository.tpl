@@ -0,0 +1,129 @@
+{{! 自訂 SQL 的 reactive repository 介面 }}
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.List;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+public interface {{entityName}}CustomRepository {
+    /**
+{{#if upsertSql}}
+     * 根據主鍵 新增或更新 {{entityVarName}}，若有資料則更新，無資料則新增
+     * @param entity 要新增或更新的 {{entityVarName}}
+{{else}}
+     * 單筆新增 {{entityVarName}}
+     * @param entity 要新增的 {{entityVarName}}
+{{/if}}
+     * @return 儲存後的 {{entityVarName}}
+     */
+    Mono<{{entityName}}> save({{entityName}} entity);
+
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 實際更新筆數
+     */
+    Mono<Integer> update({{entityName}} entityOri, {{entityName}} entityNew);
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只 SET 有變更的欄位，主鍵 不會變更 <br/>
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    Mono<Integer> patch({{entityName}} entityOri, {{entityName}} entityNew);
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}}，同一連線 依序執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @return 實際更新筆數
+     */
+    Mono<Integer> updateAll(List<{{entityName}}.{{entityName}}Update> updateList);
+
+    /**
+     * 批次新增 {{entityVarName}}，同一連線 依序執行，不會 逐筆查詢
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    Mono<Integer> batchInsert(List<{{entityName}}> entityList);
+
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}} (keyset pagination)
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}}
+     */
+    Flux<{{entityName}}> findPage({{keyType}} afterKey, int limit);
+
+{{/if}}
+    /**
+     * 串流讀取 全部 {{entityVarName}}，依 訂閱者 的需求 取回資料，不會 全部載入記憶體
+     * @return {{entityVarName}}
+     */
+    Flux<{{entityName}}> streamAll();
+
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}}
+     */
+    Flux<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit);
+
+{{/each}}
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    Mono<Integer> deleteByKey({{keyType}} id);
+
+    /**
+     * 根據主鍵 批次刪除 {{entityVarName}}
+     * @param ids 主鍵值 清單
+     * @return 刪除筆數
+     */
+    Mono<Integer> deleteAllByKeys(List<{{keyType}}> ids);
+
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}
+     * @param id 主鍵值
+     * @return 查詢到的 {{entityVarName}}，若無則為 empty
+     */
+    Mono<{{entityName}}> findByKey({{keyType}} id);
+
+    /**
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段查詢，不會 逐筆查詢
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 {{entityVarName}}，查無資料的主鍵 不會出現
+     */
+    Flux<{{entityName}}> findAllByKeys(Collection<{{keyType}}> ids);
+
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，同一連線 依序執行，不會 逐筆查詢 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    Mono<Integer> batchUpsert(List<{{entityName}}> entityList);
+
+{{else}}
+    /**
+     * 單筆刪除 {{entityVarName}}，以 全部欄位 比對
+     * @param entity 要刪除的 {{entityVarName}}
+     * @return 刪除筆數
+     */
+    Mono<Integer> deleteByEntity({{keyType}} entity);
+
+{{/if}}
+}
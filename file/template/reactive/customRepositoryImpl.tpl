@@ -0,0 +1,607 @@
+{{! 自訂 SQL 的 reactive repository 實作，使用 DatabaseClient }}
+import org.springframework.stereotype.Repository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.r2dbc.core.DatabaseClient;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.*;
+import java.util.function.BiFunction;
+{{#if patch}}
+import java.util.concurrent.ConcurrentHashMap;
+{{/if}}
+{{#if versionTime}}
+import java.time.temporal.ChronoUnit;
+{{/if}}
+{{#each typeImports}}
+import {{this}};
+{{/each}}
+
+@Repository
+public class {{entityName}}CustomRepositoryImpl implements {{entityName}}CustomRepository {
+{{#if versionColumn}}
+    // 以 主鍵 與 變更前的 版本 比對，資料已被 其他人 修改時 不會更新；版本 每次更新 都會改變
+{{else}}
+    // 以 變更前的 全部欄位 比對，資料已被 其他人 修改時 不會更新
+{{/if}}
+    private static final String UPDATE_SQL =
+            "UPDATE {{tableName}} " +
+{{#each columns}}
+            "{{#if @first}}SET {{else}}   ,{{/if}}{{columnName}} = :{{fieldName}}New " +
+{{/each}}
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{columnName}} = :{{fieldName}}Ori{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{#if versionColumn}}
+    /** 變更前的 版本 為 null 時 的 UPDATE SQL，以 IS NULL 比對；不使用 OR 合併，避免 無法使用索引 */
+    private static final String UPDATE_NULL_VERSION_SQL =
+            "UPDATE {{tableName}} " +
+{{#each columns}}
+            "{{#if @first}}SET {{else}}   ,{{/if}}{{columnName}} = :{{fieldName}}New " +
+{{/each}}
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{#if version}}{{columnName}} IS NULL{{else}}{{columnName}} = :{{fieldName}}Ori{{/if}}{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{/if}}
+{{#if patch}}
+    /** patch 的 SET 片段，索引 為 欄位位置 (主鍵{{#if versionColumn}}、版本{{/if}} 除外) */
+    private static final String[] PATCH_SET = {
+{{#each patchColumns}}
+            "{{columnName}} = :{{fieldName}}New"{{#unless @last}},{{/unless}}
+{{/each}}
+    };
+{{#if versionColumn}}
+    // 以 主鍵 與 變更前的 版本 比對，版本 每次更新 都會改變
+    private static final String PATCH_WHERE =
+            " {{versionColumn.columnName}} = :{{versionColumn.fieldName}}New " +
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{columnName}} = :{{fieldName}}Ori{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+    /** 變更前的 版本 為 null 時 的 WHERE 片段 */
+    private static final String PATCH_WHERE_NULL_VERSION =
+            " {{versionColumn.columnName}} = :{{versionColumn.fieldName}}New " +
+{{#each updateConditions}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{#if version}}{{columnName}} IS NULL{{else}}{{columnName}} = :{{fieldName}}Ori{{/if}}{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{else}}
+    /** patch 的 WHERE 片段，以 變更前的 值 比對 有變更的欄位 */
+    private static final String[] PATCH_CHECK = {
+{{#each patchColumns}}
+            " AND {{columnName}} = :{{fieldName}}Ori"{{#unless @last}},{{/unless}}
+{{/each}}
+    };
+    /** 變更前的 值 為 null 時 的 WHERE 片段 */
+    private static final String[] PATCH_CHECK_NULL = {
+{{#each patchColumns}}
+            " AND {{columnName}} IS NULL"{{#unless @last}},{{/unless}}
+{{/each}}
+    };
+    private static final String PATCH_WHERE =
+{{#each primaryKeys}}
+            "{{#if @first}} WHERE {{else}}  AND {{/if}}{{columnName}} = :{{fieldName}}Ori{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{/if}}
+    /** 已組合的 patch SQL，以 變更的欄位 與 變更前 為 null 的{{#if versionColumn}} 版本{{else}}欄位{{/if}} 為 key，每種組合 只組合一次 */
+    private static final Map<BitSet, String> PATCH_SQL_CACHE = new ConcurrentHashMap<>();
+    /** patch SQL 快取 的 上限，超過時 不再快取 (每次組合) */
+    private static final int PATCH_SQL_CACHE_LIMIT = 1024;
+{{/if}}
+    private static final String INSERT_SQL =
+{{#each insertSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{#if upsertSql}}
+    private static final String UPSERT_SQL =
+{{#each upsertSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{/if}}
+{{#if primaryKeys}}
+
+{{#unless primaryKeyExists}}
+    // 無主鍵者 以 全部欄位 比對
+{{/unless}}
+    private static final String DELETE_SQL =
+            "DELETE FROM {{tableName}} " +
+{{#each primaryKeys}}
+            "{{#if @first}}WHERE {{else}}  AND {{/if}}{{columnName}} = :{{fieldName}}{{#if @last}}";{{else}} " +{{/if}}
+{{/each}}
+{{/if}}
+{{#if primaryKeyExists}}
+{{#unless compositeKey}}
+    private static final String DELETE_IN_SQL =
+            "DELETE FROM {{tableName}} WHERE {{singleKey.columnName}} IN (:ids)";
+{{/unless}}
+    private static final String FIND_BY_KEY_SQL =
+{{#each findByKeySql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{#if findByKeysOr}}
+    // 後面 串接 各主鍵的條件
+{{/if}}
+    private static final String FIND_BY_KEYS_SQL =
+{{#each findByKeysSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    /** IN 清單 每次最多的筆數 (Oracle 上限 1000) */
+    private static final int IN_LIMIT = 1000;
+{{#if findByKeysOr}}
+    /** 以 OR 串接時 每次最多的主鍵數 (SQL Server 每個語句 最多 2100 個參數) */
+    private static final int OR_LIMIT = 2000 / {{primaryKeyCount}};
+{{/if}}
+{{/if}}
+{{#if keysetPageable}}
+    private static final String PAGE_FIRST_SQL =
+{{#each pageFirstSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    private static final String PAGE_AFTER_SQL =
+{{#each pageAfterSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{/if}}
+    private static final String SELECT_ALL_SQL =
+{{#each selectAllSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+{{#each projections}}
+
+    private static final String {{projectionConstant}}_PAGE_FIRST_SQL =
+{{#each pageFirstSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    private static final String {{projectionConstant}}_PAGE_AFTER_SQL =
+{{#each pageAfterSql}}
+            "{{this}}"{{#if @last}};{{else}} +{{/if}}
+{{/each}}
+    private static final BiFunction<Row, RowMetadata, {{projectionName}}> {{projectionConstant}}_MAPPER = (row, metadata) -> new {{projectionName}}(
+{{#each rowReaders}}
+            {{this}}{{#if @last}});{{else}},{{/if}}
+{{/each}}
+{{/each}}
+
+    /** 以 欄位位置 讀取 查詢結果，不經過 反射，欄位順序 與 SELECT 相同 */
+{{#if allArgsConstructor}}
+    private static final BiFunction<Row, RowMetadata, {{entityName}}> ROW_MAPPER = (row, metadata) -> new {{entityName}}(
+{{#each columns}}
+            {{rowReader}}{{#if @last}});{{else}},{{/if}}
+{{/each}}
+{{else}}
+    // 欄位數 超過 建構子 參數上限，以 setter 設定
+    private static final BiFunction<Row, RowMetadata, {{entityName}}> ROW_MAPPER = (row, metadata) -> {
+        {{entityName}} entity = new {{entityName}}();
+{{#each columns}}
+        entity.set{{capitalizedName}}({{rowReader}});
+{{/each}}
+        return entity;
+    };
+{{/if}}
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+{{#if upsertSql}}
+     * 根據主鍵 新增或更新 {{entityVarName}}，若有資料則更新，無資料則新增
+     * @param entity 要新增或更新的 {{entityVarName}}
+{{else}}
+     * 單筆新增 {{entityVarName}}
+     * @param entity 要新增的 {{entityVarName}}
+{{/if}}
+     * @return 儲存後的 {{entityVarName}}
+     */
+    @Override
+    @Transactional
+    public Mono<{{entityName}}> save({{entityName}} entity) {
+{{#if upsertSql}}
+        return bindParams(databaseClient.sql(UPSERT_SQL), entity).fetch().rowsUpdated().thenReturn(entity);
+{{else}}
+        return bindParams(databaseClient.sql(INSERT_SQL), entity).fetch().rowsUpdated().thenReturn(entity);
+{{/if}}
+    }
+
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 實際更新筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> update({{entityName}} entityOri, {{entityName}} entityNew) {
+        return bindUpdateParams(databaseClient.sql({{#if versionColumn}}updateSql(entityOri){{else}}UPDATE_SQL{{/if}}), entityOri, entityNew).fetch().rowsUpdated();
+    }
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只 SET 有變更的欄位，主鍵 不會變更 <br/>
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位 (不執行 SQL)、資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> patch({{entityName}} entityOri, {{entityName}} entityNew) {
+        BitSet changed = new BitSet();
+{{#each patchColumns}}
+        if (!Objects.deepEquals(entityOri.get{{capitalizedName}}(), entityNew.get{{capitalizedName}}())) {
+            changed.set({{patchIndex}});
+{{#unless versionColumn}}
+            if (entityOri.get{{capitalizedName}}() == null) {
+                changed.set(PATCH_SET.length + {{patchIndex}});
+            }
+{{/unless}}
+        }
+{{/each}}
+        if (changed.isEmpty()) {
+            return Mono.just(0);
+        }
+{{#if versionColumn}}
+        if (entityOri.get{{versionColumn.capitalizedName}}() == null) {
+            changed.set(PATCH_SET.length);
+        }
+{{/if}}
+        // R2DBC 不可 設定 SQL 未使用的參數，只設定 有變更的欄位
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(patchSql(changed));
+{{#each patchColumns}}
+        if (changed.get({{patchIndex}})) {
+            spec = bind(spec, "{{fieldName}}New", entityNew.get{{capitalizedName}}(), {{javaType}}.class);
+{{#unless versionColumn}}
+            if (!changed.get(PATCH_SET.length + {{patchIndex}})) {
+                spec = spec.bind("{{fieldName}}Ori", entityOri.get{{capitalizedName}}());
+            }
+{{/unless}}
+        }
+{{/each}}
+{{#if versionColumn}}
+        spec = bind(spec, "{{versionColumn.fieldName}}New", {{versionNext}}, {{versionColumn.javaType}}.class);
+{{#each updateConditions}}
+{{#if version}}
+        if (entityOri.get{{capitalizedName}}() != null) {
+            spec = spec.bind("{{fieldName}}Ori", entityOri.get{{capitalizedName}}());
+        }
+{{else}}
+        spec = bind(spec, "{{fieldName}}Ori", entityOri.get{{capitalizedName}}(), {{javaType}}.class);
+{{/if}}
+{{/each}}
+{{else}}
+{{#each primaryKeys}}
+        spec = bind(spec, "{{fieldName}}Ori", entityOri.get{{capitalizedName}}(), {{javaType}}.class);
+{{/each}}
+{{/if}}
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * 依 有變更的欄位 組合 patch 的 SQL，由 預先產生的 片段 組合，相同組合 由快取 取得
+     * @param changed 有變更的欄位{{#if versionColumn}} (PATCH_SET.length 為 變更前的 版本 為 null){{else}} (PATCH_SET.length 之後 為 變更前 為 null 的欄位){{/if}}
+     * @return UPDATE SQL
+     */
+    private static String patchSql(BitSet changed) {
+        String sql = PATCH_SQL_CACHE.get(changed);
+        if (sql != null) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder("UPDATE {{tableName}} SET ");
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            builder.append(PATCH_SET[i]).append(',');
+        }
+{{#if versionColumn}}
+        builder.append(changed.get(PATCH_SET.length) ? PATCH_WHERE_NULL_VERSION : PATCH_WHERE);
+{{else}}
+        builder.setLength(builder.length() - 1);
+        builder.append(PATCH_WHERE);
+        for (int i = changed.nextSetBit(0); i >= 0 && i < PATCH_SET.length; i = changed.nextSetBit(i + 1)) {
+            builder.append(changed.get(PATCH_SET.length + i) ? PATCH_CHECK_NULL[i] : PATCH_CHECK[i]);
+        }
+{{/if}}
+        sql = builder.toString();
+        if (PATCH_SQL_CACHE.size() < PATCH_SQL_CACHE_LIMIT) {
+            PATCH_SQL_CACHE.putIfAbsent((BitSet) changed.clone(), sql);
+        }
+        return sql;
+    }
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}}，在 交易中 同一連線 依序執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @return 實際更新筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> updateAll(List<{{entityName}}.{{entityName}}Update> updateList) {
+        return Flux.fromIterable(updateList)
+                .concatMap(entityUpdate -> bindUpdateParams(databaseClient.sql({{#if versionColumn}}updateSql(entityUpdate.get{{entityName}}Ori()){{else}}UPDATE_SQL{{/if}}),
+                        entityUpdate.get{{entityName}}Ori(), entityUpdate.get{{entityName}}New()).fetch().rowsUpdated())
+                .reduce(0, Integer::sum);
+    }
+
+    /**
+     * 批次新增 {{entityVarName}}，在 交易中 同一連線 依序執行，不會 逐筆查詢
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> batchInsert(List<{{entityName}}> entityList) {
+        return executeEach(INSERT_SQL, entityList);
+    }
+
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，在 交易中 同一連線 依序執行，不會 逐筆查詢 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> batchUpsert(List<{{entityName}}> entityList) {
+        return executeEach(UPSERT_SQL, entityList);
+    }
+
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> deleteByKey({{keyType}} id) {
+        return bindKeyParams(databaseClient.sql(DELETE_SQL), id).fetch().rowsUpdated();
+    }
+
+    /**
+{{#if compositeKey}}
+     * 根據主鍵 批次刪除 {{entityVarName}}，在 交易中 同一連線 依序執行
+{{else}}
+     * 根據主鍵 批次刪除 {{entityVarName}}，以 IN 清單 分段執行
+{{/if}}
+     * @param ids 主鍵值 清單
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> deleteAllByKeys(List<{{keyType}}> ids) {
+{{#if compositeKey}}
+        return Flux.fromIterable(ids)
+                .concatMap(id -> bindKeyParams(databaseClient.sql(DELETE_SQL), id).fetch().rowsUpdated())
+                .reduce(0, Integer::sum);
+{{else}}
+        return Flux.fromIterable(ids)
+                .buffer(IN_LIMIT)
+                .concatMap(chunk -> databaseClient.sql(DELETE_IN_SQL).bind("ids", chunk).fetch().rowsUpdated())
+                .reduce(0, Integer::sum);
+{{/if}}
+    }
+
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}，以 欄位位置 讀取
+     * @param id 主鍵值
+     * @return 查詢到的 {{entityVarName}}，若無則為 empty
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<{{entityName}}> findByKey({{keyType}} id) {
+        return bindKeyParams(databaseClient.sql(FIND_BY_KEY_SQL), id).map(ROW_MAPPER).one();
+    }
+
+    /**
+{{#if findByKeysOr}}
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段 以 OR 串接 各主鍵的條件，每段 一次查詢
+{{else}}
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段 以 IN 清單 查詢，每段 一次查詢
+{{/if}}
+     * @param ids 主鍵值 清單，重複者 只查詢一次
+     * @return 查詢到的 {{entityVarName}}，查無資料的主鍵 不會出現，順序 不保證 與 主鍵值 相同
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<{{entityName}}> findAllByKeys(Collection<{{keyType}}> ids) {
+{{#if findByKeysOr}}
+        return Flux.fromIterable(new LinkedHashSet<>(ids))
+                .buffer(OR_LIMIT)
+                .concatMap(chunk -> {
+                    StringBuilder sql = new StringBuilder(FIND_BY_KEYS_SQL);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        sql.append(i == 0 ? "(" : " OR (");
+{{#each primaryKeys}}
+                        sql.append("{{#unless @first}} AND {{/unless}}{{columnName}} = :{{fieldName}}_").append(i);
+{{/each}}
+                        sql.append(")");
+                    }
+                    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        {{keyType}} id = chunk.get(i);
+{{#each primaryKeys}}
+                        spec = bind(spec, "{{fieldName}}_" + i, id.get{{capitalizedName}}(), {{javaType}}.class);
+{{/each}}
+                    }
+                    return spec.map(ROW_MAPPER).all();
+                });
+{{else}}
+{{#if compositeKey}}
+        // 多欄位 IN 的參數 為 Object[] 清單，展開為 ((?, ?), (?, ?))
+        return Flux.fromIterable(new LinkedHashSet<>(ids))
+                .map(id -> new Object[]{ {{#each primaryKeys}}{{#unless @first}}, {{/unless}}id.get{{capitalizedName}}(){{/each}} })
+                .buffer(IN_LIMIT)
+                .concatMap(chunk -> databaseClient.sql(FIND_BY_KEYS_SQL).bind("ids", chunk).map(ROW_MAPPER).all());
+{{else}}
+        return Flux.fromIterable(new LinkedHashSet<>(ids))
+                .buffer(IN_LIMIT)
+                .concatMap(chunk -> databaseClient.sql(FIND_BY_KEYS_SQL).bind("ids", chunk).map(ROW_MAPPER).all());
+{{/if}}
+{{/if}}
+    }
+
+{{else}}
+    /**
+     * 單筆刪除 {{entityVarName}}，以 全部欄位 比對
+     * @param entity 要刪除的 {{entityVarName}}
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> deleteByEntity({{keyType}} entity) {
+        return bindKeyParams(databaseClient.sql(DELETE_SQL), entity).fetch().rowsUpdated();
+    }
+
+{{/if}}
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}} (keyset pagination)，不使用 OFFSET，越後面的頁數 也不會 變慢
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<{{entityName}}> findPage({{keyType}} afterKey, int limit) {
+        if (afterKey == null) {
+            return databaseClient.sql(PAGE_FIRST_SQL).bind("limit", limit).map(ROW_MAPPER).all();
+        }
+        return bindKeyParams(databaseClient.sql(PAGE_AFTER_SQL), afterKey).bind("limit", limit).map(ROW_MAPPER).all();
+    }
+
+{{/if}}
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit) {
+        if (afterKey == null) {
+            return databaseClient.sql({{projectionConstant}}_PAGE_FIRST_SQL).bind("limit", limit).map({{projectionConstant}}_MAPPER).all();
+        }
+        return bindKeyParams(databaseClient.sql({{projectionConstant}}_PAGE_AFTER_SQL), afterKey).bind("limit", limit)
+                .map({{projectionConstant}}_MAPPER).all();
+    }
+
+{{/each}}
+    /**
+     * 串流讀取 全部 {{entityVarName}}，依 訂閱者 的需求 (backpressure) 由資料庫 取回資料，不會 全部載入記憶體
+     * @return {{entityVarName}}
+     */
+    @Override
+    public Flux<{{entityName}}> streamAll() {
+        return databaseClient.sql(SELECT_ALL_SQL).map(ROW_MAPPER).all();
+    }
+
+    /**
+     * DatabaseClient 不支援 具名參數 的 batch，逐筆送出，在 交易中 使用 同一連線，等待結果時 不佔用 執行緒
+     * @param sql 執行的 SQL
+     * @param entityList 資料清單
+     * @return 處理筆數
+     */
+    private Mono<Integer> executeEach(String sql, List<{{entityName}}> entityList) {
+        return Flux.fromIterable(entityList)
+                .concatMap(entity -> bindParams(databaseClient.sql(sql), entity).fetch().rowsUpdated())
+                .reduce(0, Integer::sum);
+    }
+
+    /**
+     * 設定 SQL 參數，R2DBC 的 null 參數 需指定 型別
+     * @param spec SQL
+     * @param name 參數名稱
+     * @param value 參數值
+     * @param type 參數型別
+     * @return 設定參數後的 SQL
+     */
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+{{#if versionColumn}}
+    /**
+     * 依 變更前的 版本 選擇 UPDATE SQL，版本 為 null 者 以 IS NULL 比對
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @return UPDATE SQL
+     */
+    private static String updateSql({{entityName}} entityOri) {
+        return entityOri.get{{versionColumn.capitalizedName}}() == null ? UPDATE_NULL_VERSION_SQL : UPDATE_SQL;
+    }
+
+{{/if}}
+    /**
+     * 設定 UPDATE_SQL{{#if versionColumn}}、UPDATE_NULL_VERSION_SQL{{/if}} 的 變更前 與 變更後 參數
+{{#if versionColumn}}
+     * 版本 不使用 變更後的值，由 變更前的 版本 產生 新版本
+{{/if}}
+     * @param spec SQL
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 設定參數後的 SQL
+     */
+    private static DatabaseClient.GenericExecuteSpec bindUpdateParams(DatabaseClient.GenericExecuteSpec spec,
+                                                                     {{entityName}} entityOri, {{entityName}} entityNew) {
+{{#each columns}}
+{{#if version}}
+        spec = bind(spec, "{{fieldName}}New", {{versionNext}}, {{javaType}}.class);
+{{else}}
+        spec = bind(spec, "{{fieldName}}New", entityNew.get{{capitalizedName}}(), {{javaType}}.class);
+{{/if}}
+{{/each}}
+{{#each updateConditions}}
+{{#if version}}
+        // 版本 為 null 時 SQL 以 IS NULL 比對，不使用 此參數
+        if (entityOri.get{{capitalizedName}}() != null) {
+            spec = spec.bind("{{fieldName}}Ori", entityOri.get{{capitalizedName}}());
+        }
+{{else}}
+        spec = bind(spec, "{{fieldName}}Ori", entityOri.get{{capitalizedName}}(), {{javaType}}.class);
+{{/if}}
+{{/each}}
+        return spec;
+    }
+
+    /**
+     * 設定 主鍵 參數，參數名稱 為 欄位名稱
+     * @param spec SQL
+     * @param id 主鍵值
+     * @return 設定參數後的 SQL
+     */
+    private static DatabaseClient.GenericExecuteSpec bindKeyParams(DatabaseClient.GenericExecuteSpec spec, {{keyType}} id) {
+{{#if compositeKey}}
+{{#each primaryKeys}}
+        spec = bind(spec, "{{fieldName}}", id.get{{capitalizedName}}(), {{javaType}}.class);
+{{/each}}
+        return spec;
+{{else}}
+        return bind(spec, "{{singleKey.fieldName}}", id, {{keyType}}.class);
+{{/if}}
+    }
+
+    /**
+     * 設定 {{entityVarName}} 的 參數，參數名稱 為 欄位名稱
+{{#if versionColumn}}
+{{#if versionTime}}
+     * 版本 一律 為 目前時間
+{{else}}
+     * 版本 未指定時 為 初始值
+{{/if}}
+{{/if}}
+     * @param spec SQL
+     * @param entity {{entityVarName}}
+     * @return 設定參數後的 SQL
+     */
+    private static DatabaseClient.GenericExecuteSpec bindParams(DatabaseClient.GenericExecuteSpec spec, {{entityName}} entity) {
+{{#each columns}}
+{{#if version}}
+        spec = bind(spec, "{{fieldName}}", {{versionValue}}, {{javaType}}.class);
+{{else}}
+        spec = bind(spec, "{{fieldName}}", entity.get{{capitalizedName}}(), {{javaType}}.class);
+{{/if}}
+{{/each}}
+        return spec;
+    }
+
+}
@@ -0,0 +1,91 @@
+{{! R2DBC 的 Entity 類別，內含 主鍵 Key 類 與 update 類 }}
+{{#unless compositeKey}}
+import org.springframework.data.annotation.Id;
+{{/unless}}
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.io.Serializable;
+import java.util.Objects;
+import java.time.LocalDateTime;
+{{#each imports}}
+import {{this}};
+{{/each}}
+
+@Table("{{tableName}}")
+{{#if description}}
+@Schema(description = "{{description}}")
+{{/if}}
+{{#if compositeKey}}
+// R2DBC 不支援 複合主鍵，不標示 @Id，新增、修改、刪除 由 {{entityName}}CustomRepository 處理
+{{/if}}
+public class {{entityName}} implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+{{#each columns}}
+{{#if primaryKey}}
+{{#unless compositeKey}}
+    @Id
+{{/unless}}
+{{/if}}
+{{#if description}}
+    @Schema(description = "{{description}}")
+{{/if}}
+    @Column("{{columnName}}")
+    private {{javaType}} {{fieldName}};
+
+{{/each}}
+
+    public {{entityName}}() {}
+{{#if allArgsConstructor}}
+
+    public {{entityName}}({{#each columns}}{{#unless @first}}, {{/unless}}{{javaType}} {{fieldName}}{{/each}}) {
+{{#each columns}}
+        this.{{fieldName}} = {{fieldName}};
+{{/each}}
+    }
+{{/if}}
+
+{{#each columns}}
+    public {{javaType}} get{{capitalizedName}}() {
+{{#if trimGetter}}
+        return {{fieldName}}!= null ? {{fieldName}}.trim() : null;
+{{else}}
+        return {{fieldName}};
+{{/if}}
+    }
+
+    public void set{{capitalizedName}}({{javaType}} {{fieldName}}) {
+        this.{{fieldName}} = {{fieldName}};
+    }
+
+{{/each}}
+{{#if compositeKey}}
+    /**
+     * @return 本筆資料的 主鍵
+     */
+    public {{keyClassName}} toKey() {
+        {{keyClassName}} key = new {{keyClassName}}();
+{{#each primaryKeys}}
+        key.set{{capitalizedName}}(get{{capitalizedName}}());
+{{/each}}
+        return key;
+    }
+
+{{/if}}
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        {{entityName}} that = ({{entityName}}) o;
+        return {{#each primaryKeys}}{{#unless @first}} && {{/unless}}Objects.equals({{fieldName}}, that.{{fieldName}}){{else}}true{{/each}};
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash({{#each primaryKeys}}{{#unless @first}}, {{/unless}}{{fieldName}}{{/each}});
+    }
+
+{{> entityKey}}
+{{> entityUpdate}}
+}
@@ -0,0 +1,14 @@
+{{! R2dbcRepository 介面，R2DBC 不支援 複合主鍵，只產生 單一主鍵 者 }}
+{{#if primaryKeyExists}}
+{{#unless compositeKey}}
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+// 簡單查詢 可在此 以 方法名稱 定義 (如：findByXxx)
+// 新增、修改 請使用 {{entityName}}CustomRepository：主鍵 由程式 指定，R2dbcRepository.save 在 主鍵 有值 時 一律 執行 UPDATE
+public interface {{entityName}}Repository extends R2dbcRepository<{{entityName}}, {{keyType}}> {
+}
+{{/unless}}
+{{/if}}
@@ -0,0 +1,147 @@
+{{! reactive service 介面 }}
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.List;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+public interface {{entityName}}Service {
+    /**
+{{#if primaryKeyExists}}
+     * 根據主鍵 新增或更新 {{entityVarName}} <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entity 要新增或更新的 {{entityVarName}}
+{{else}}
+     * 單筆新增 {{entityVarName}} <br/>
+     * @param entity 要新增的 {{entityVarName}}
+{{/if}}
+     * @return 儲存後的實體物件
+     */
+    Mono<{{entityName}}> save({{entityName}} entity);
+
+    /**
+{{#if primaryKeyExists}}
+     * 根據主鍵 大量 新增或更新 {{entityVarName}} <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+{{else}}
+     * 多筆新增 {{entityVarName}} <br/>
+     * @param entityList 要新增的 {{entityVarName}} 清單
+{{/if}}
+     * @return 儲存後的實體物件
+     */
+    Flux<{{entityName}}> saveAll(List<{{entityName}}> entityList);
+
+    /**
+     * 批次新增 {{entityVarName}}，適用於 大量匯入 <br/>
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    Mono<Integer> batchInsert(List<{{entityName}}> entityList);
+
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    Mono<Integer> update({{entityName}} entityOri, {{entityName}} entityNew);
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只更新 有變更的欄位，主鍵 不會變更 <br/>
+     * 有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    Mono<Integer> patch({{entityName}} entityOri, {{entityName}} entityNew);
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @return 實際更新筆數
+     */
+    Mono<Integer> updateAll(List<{{entityName}}.{{entityName}}Update> updateList);
+
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，適用於 大量匯入 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    Mono<Integer> batchUpsert(List<{{entityName}}> entityList);
+
+{{/if}}
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}}，以 上一頁 最後一筆的主鍵 取得 下一頁
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}}
+     */
+    Flux<{{entityName}}> findPage({{keyType}} afterKey, int limit);
+
+{{/if}}
+    /**
+     * 串流讀取 全部 {{entityVarName}}，不會 全部載入記憶體
+     * @return {{entityVarName}}
+     */
+    Flux<{{entityName}}> streamAll();
+
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}}
+     */
+    Flux<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit);
+
+{{/each}}
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}
+     * @param id 主鍵值
+     * @return 查詢到的實體物件，若無則為 empty
+     */
+    Mono<{{entityName}}> findById({{keyType}} id);
+
+    /**
+     * 根據主鍵 批次查詢 {{entityVarName}}
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 {{entityVarName}}，查無資料的主鍵 不會出現
+     */
+    Flux<{{entityName}}> findAllByIds(Collection<{{keyType}}> ids);
+
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    Mono<Integer> deleteById({{keyType}} id);
+
+    /**
+     * 根據主鍵 批次刪除 {{entityVarName}}
+     * @param ids 主鍵值 清單
+     * @return 刪除筆數
+     */
+    Mono<Integer> deleteAllByIds(List<{{keyType}}> ids);
+{{else}}
+    // 無主鍵者，自行處理 查詢 方法
+
+    /**
+     * 單筆刪除 {{entityVarName}}
+     * @param entity 要刪除的 {{entityVarName}}
+     * @return 刪除完成
+     */
+    Mono<Void> deleteByEntity({{keyType}} entity);
+
+{{/if}}
+}
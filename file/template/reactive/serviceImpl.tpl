@@ -0,0 +1,211 @@
+{{! reactive service 實作，交易 由 R2dbcTransactionManager 管理，不綁定 執行緒 }}
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.*;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+@Service
+public class {{entityName}}ServiceImpl implements {{entityName}}Service {
+    private final {{entityName}}CustomRepository {{entityVarName}}Repository;
+
+    public {{entityName}}ServiceImpl({{entityName}}CustomRepository {{entityVarName}}Repository) {
+        this.{{entityVarName}}Repository = {{entityVarName}}Repository;
+    }
+
+    /**
+{{#if primaryKeyExists}}
+     * 根據主鍵 新增或更新 {{entityVarName}} <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entity 要新增或更新的 {{entityVarName}}
+{{else}}
+     * 單筆新增 {{entityVarName}}
+     * @param entity 要新增的 {{entityVarName}}
+{{/if}}
+     * @return 儲存後的實體物件
+     */
+    @Override
+    @Transactional
+    public Mono<{{entityName}}> save({{entityName}} entity) {
+        return {{entityVarName}}Repository.save(entity);
+    }
+
+    /**
+{{#if primaryKeyExists}}
+     * 根據主鍵 大量 新增或更新 {{entityVarName}} <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+{{else}}
+     * 多筆新增 {{entityVarName}}
+     * @param entityList 要新增的 {{entityVarName}} 清單
+{{/if}}
+     * @return 儲存後的實體物件
+     */
+    @Override
+    @Transactional
+    public Flux<{{entityName}}> saveAll(List<{{entityName}}> entityList) {
+        return Flux.fromIterable(entityList).concatMap({{entityVarName}}Repository::save);
+    }
+
+    /**
+     * 批次新增 {{entityVarName}}，適用於 大量匯入 <br/>
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> batchInsert(List<{{entityName}}> entityList) {
+        return {{entityVarName}}Repository.batchInsert(entityList);
+    }
+
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> update({{entityName}} entityOri, {{entityName}} entityNew) {
+        return {{entityVarName}}Repository.update(entityOri, entityNew);
+    }
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只更新 有變更的欄位，主鍵 不會變更 <br/>
+     * 有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> patch({{entityName}} entityOri, {{entityName}} entityNew) {
+        return {{entityVarName}}Repository.patch(entityOri, entityNew);
+    }
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @return 實際更新筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> updateAll(List<{{entityName}}.{{entityName}}Update> updateList) {
+        return {{entityVarName}}Repository.updateAll(updateList);
+    }
+
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，適用於 大量匯入 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> batchUpsert(List<{{entityName}}> entityList) {
+        return {{entityVarName}}Repository.batchUpsert(entityList);
+    }
+
+{{/if}}
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}}，以 上一頁 最後一筆的主鍵 取得 下一頁
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}}
+     */
+    @Override
+    public Flux<{{entityName}}> findPage({{keyType}} afterKey, int limit) {
+        return {{entityVarName}}Repository.findPage(afterKey, limit);
+    }
+
+{{/if}}
+    /**
+     * 串流讀取 全部 {{entityVarName}}，不會 全部載入記憶體
+     * @return {{entityVarName}}
+     */
+    @Override
+    public Flux<{{entityName}}> streamAll() {
+        return {{entityVarName}}Repository.streamAll();
+    }
+
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}}
+     */
+    @Override
+    public Flux<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit) {
+        return {{entityVarName}}Repository.find{{projectionName}}Page(afterKey, limit);
+    }
+
+{{/each}}
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}
+     * @param id 主鍵值
+     * @return 查詢到的實體物件，若無則為 empty
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<{{entityName}}> findById({{keyType}} id) {
+        return {{entityVarName}}Repository.findByKey(id);
+    }
+
+    /**
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段查詢，不會 逐筆查詢
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 {{entityVarName}}，查無資料的主鍵 不會出現
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<{{entityName}}> findAllByIds(Collection<{{keyType}}> ids) {
+        return {{entityVarName}}Repository.findAllByKeys(ids);
+    }
+
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> deleteById({{keyType}} id) {
+        return {{entityVarName}}Repository.deleteByKey(id);
+    }
+
+    /**
+     * 根據主鍵 批次刪除 {{entityVarName}}
+     * @param ids 主鍵值 清單
+     * @return 刪除筆數
+     */
+    @Override
+    @Transactional
+    public Mono<Integer> deleteAllByIds(List<{{keyType}}> ids) {
+        return {{entityVarName}}Repository.deleteAllByKeys(ids);
+    }
+{{else}}
+    // 無主鍵者，自行處理 查詢 方法實作
+
+    /**
+     * 單筆刪除 {{entityVarName}}
+     * @param entity 要刪除的 {{entityVarName}}
+     * @return 刪除完成
+     */
+    @Override
+    @Transactional
+    public Mono<Void> deleteByEntity({{keyType}} entity) {
+        return {{entityVarName}}Repository.deleteByEntity(entity).then();
+    }
+{{/if}}
+}
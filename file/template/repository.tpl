@@ -0,0 +1,8 @@
+{{! JpaRepository 介面 }}
+import org.springframework.data.jpa.repository.JpaRepository;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+public interface {{entityName}}Repository extends JpaRepository<{{entityName}}, {{keyType}}>, {{entityName}}CustomRepository{
+}
@@ -0,0 +1,407 @@
+{{! service 實作 }}
+import org.springframework.stereotype.Service;
+{{#if bulkhead}}
+import org.springframework.transaction.PlatformTransactionManager;
+{{else}}
+import org.springframework.transaction.annotation.Transactional;
+{{/if}}
+{{#if cached}}
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+{{/if}}
+{{#if metrics}}
+import io.micrometer.core.annotation.Timed;
+{{/if}}
+import java.util.*;
+import java.util.function.Consumer;
+{{#if keyImport}}
+import {{keyImport}};
+{{/if}}
+
+@Service
+{{#if cached}}
+@CacheConfig(cacheNames = "{{entityName}}")
+{{/if}}
+public class {{entityName}}ServiceImpl implements {{entityName}}Service {
+    /** JDBC batch 每批 送出的筆數 */
+    private static final int BATCH_SIZE = {{batchSize}};
+{{#if bulkhead}}
+
+    /** 同時 存取資料庫 的 上限，超過者 等待，等待時 不佔用 連線 */
+    private static final int DB_MAX_CONCURRENCY = {{dbMaxConcurrency}};
+    /** 等待 存取資料庫 的 最長毫秒數 */
+    private static final long DB_ACQUIRE_TIMEOUT_MS = {{dbAcquireTimeoutMs}};
+{{/if}}
+
+    private final {{entityName}}Repository {{entityVarName}}Repository;
+{{#if bulkhead}}
+    // 先取得 permit 再開始交易，取代 @Transactional
+    private final DbBulkhead bulkhead;
+{{/if}}
+
+    public {{entityName}}ServiceImpl({{entityName}}Repository {{entityVarName}}Repository{{#if bulkhead}},
+            PlatformTransactionManager transactionManager{{/if}}) {
+        this.{{entityVarName}}Repository = {{entityVarName}}Repository;
+{{#if bulkhead}}
+        this.bulkhead = new DbBulkhead("{{entityName}}", DB_MAX_CONCURRENCY, DB_ACQUIRE_TIMEOUT_MS, transactionManager);
+{{/if}}
+    }
+
+    /**
+{{#if primaryKeyExists}}
+     * 根據主鍵 新增或更新 {{entityVarName}} <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entity 要新增或更新的 {{entityVarName}}
+{{else}}
+     * 單筆新增 {{entityVarName}}
+     * @param entity 要新增的 {{entityVarName}}
+{{/if}}
+     * @return 儲存後的實體物件
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CachePut(key = "#result.{{cacheKeyProperty}}")
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "save"}, histogram = true)
+{{/if}}
+    public {{entityName}} save({{entityName}} entity) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.save(entity));
+{{else}}
+        return {{entityVarName}}Repository.save(entity);
+{{/if}}
+    }
+
+    /**
+{{#if primaryKeyExists}}
+     * 根據主鍵 大量 新增或更新 {{entityVarName}} <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+{{else}}
+     * 多筆新增 {{entityVarName}}
+     * @param entityList 要新增的 {{entityVarName}} 清單
+{{/if}}
+     * @return 儲存後的實體物件清單
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CacheEvict(allEntries = true)
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "saveAll"}, histogram = true)
+{{/if}}
+    public List<{{entityName}}> saveAll(List<{{entityName}}> entityList) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.saveAll(entityList));
+{{else}}
+        return {{entityVarName}}Repository.saveAll(entityList);
+{{/if}}
+    }
+
+    /**
+     * 批次新增 {{entityVarName}}，以 JDBC batch 執行，適用於 大量匯入 <br/>
+     * @param entityList 要新增的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "batchInsert"}, histogram = true)
+{{/if}}
+    public int batchInsert(List<{{entityName}}> entityList) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.batchInsert(entityList, BATCH_SIZE));
+{{else}}
+        return {{entityVarName}}Repository.batchInsert(entityList, BATCH_SIZE);
+{{/if}}
+    }
+
+    /**
+     * 單筆更新 {{entityVarName}} <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 資料已被修改 或 不存在
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    // 主鍵 可能被修改，變更前 與 變更後 的主鍵 都要清除
+    @Caching(evict = {@CacheEvict(key = "#entityOri.{{cacheKeyProperty}}"), @CacheEvict(key = "#entityNew.{{cacheKeyProperty}}")})
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "update"}, histogram = true)
+{{/if}}
+    public int update({{entityName}} entityOri, {{entityName}} entityNew) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.update(entityOri, entityNew));
+{{else}}
+        return {{entityVarName}}Repository.update(entityOri, entityNew);
+{{/if}}
+    }
+{{#if patch}}
+
+    /**
+     * 單筆 部分更新 {{entityVarName}}，只更新 有變更的欄位，主鍵 不會變更 <br/>
+     * 有變更的欄位 變更前的資料 與 資料庫 不符者 不會更新
+     * @param entityOri 變更前的 {{entityVarName}}
+     * @param entityNew 變更後的 {{entityVarName}}
+     * @return 更新筆數，0 代表 無變更的欄位、資料已被修改 或 不存在
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CacheEvict(key = "#entityOri.{{cacheKeyProperty}}")
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "patch"}, histogram = true)
+{{/if}}
+    public int patch({{entityName}} entityOri, {{entityName}} entityNew) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.patch(entityOri, entityNew));
+{{else}}
+        return {{entityVarName}}Repository.patch(entityOri, entityNew);
+{{/if}}
+    }
+{{/if}}
+
+    /**
+     * 批次更新 {{entityVarName}}，以 JDBC batch 執行 <br/>
+     * 變更前的資料 與 資料庫 不符者 不會更新
+     * @param updateList 變更前 與 變更後 的 {{entityVarName}} 清單
+     * @return 實際更新筆數
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CacheEvict(allEntries = true)
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "updateAll"}, histogram = true)
+{{/if}}
+    public int updateAll(List<{{entityName}}.{{entityName}}Update> updateList) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.updateAll(updateList, BATCH_SIZE));
+{{else}}
+        return {{entityVarName}}Repository.updateAll(updateList, BATCH_SIZE);
+{{/if}}
+    }
+
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 批次 新增或更新 {{entityVarName}}，以 JDBC batch 執行，適用於 大量匯入 <br/>
+     * 若有資料則更新，無資料則新增
+     * @param entityList 要新增或更新的 {{entityVarName}} 清單
+     * @return 處理筆數
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CacheEvict(allEntries = true)
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "batchUpsert"}, histogram = true)
+{{/if}}
+    public int batchUpsert(List<{{entityName}}> entityList) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.batchUpsert(entityList, BATCH_SIZE));
+{{else}}
+        return {{entityVarName}}Repository.batchUpsert(entityList, BATCH_SIZE);
+{{/if}}
+    }
+
+{{/if}}
+{{#if keysetPageable}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{entityVarName}}，以 上一頁 最後一筆的主鍵 取得 下一頁
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{entityVarName}} 清單
+     */
+    @Override
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "findPage"}, histogram = true)
+{{/if}}
+    public List<{{entityName}}> findPage({{keyType}} afterKey, int limit) {
+{{#if bulkhead}}
+        return bulkhead.read(() -> {{entityVarName}}Repository.findPage(afterKey, limit));
+{{else}}
+        return {{entityVarName}}Repository.findPage(afterKey, limit);
+{{/if}}
+    }
+
+{{/if}}
+    /**
+     * 逐筆讀取 全部 {{entityVarName}}，不會 全部載入記憶體
+     * @param consumer 每筆資料的 處理方法
+     */
+    @Override
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "streamAll"}, histogram = true)
+{{/if}}
+    public void streamAll(Consumer<{{entityName}}> consumer) {
+{{#if bulkhead}}
+        bulkhead.read(() -> {{entityVarName}}Repository.streamAll(consumer));
+{{else}}
+        {{entityVarName}}Repository.streamAll(consumer);
+{{/if}}
+    }
+
+{{#each projections}}
+    /**
+     * 依 主鍵 排序 分頁查詢 {{projectionName}}，只查詢 部分欄位
+     * @param afterKey 上一頁 最後一筆的主鍵，null 為 第一頁
+     * @param limit 每頁筆數
+     * @return {{projectionName}} 清單
+     */
+    @Override
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "find{{projectionName}}Page"}, histogram = true)
+{{/if}}
+    public List<{{projectionName}}> find{{projectionName}}Page({{keyType}} afterKey, int limit) {
+{{#if bulkhead}}
+        return bulkhead.read(() -> {{entityVarName}}Repository.find{{projectionName}}Page(afterKey, limit));
+{{else}}
+        return {{entityVarName}}Repository.find{{projectionName}}Page(afterKey, limit);
+{{/if}}
+    }
+
+{{/each}}
+{{#if primaryKeyExists}}
+    /**
+     * 根據主鍵 查詢 {{entityVarName}}，以 JDBC 讀取，不經過 JPA 的 persistence context
+     * @param id 主鍵值
+     * @return 查詢到的實體物件，若無則返回 null
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional(readOnly = true)
+{{/unless}}
+{{#if cached}}
+    @Cacheable(key = "#id", unless = "#result == null")
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "findById"}, histogram = true)
+{{/if}}
+    public {{entityName}} findById({{keyType}} id) {
+{{#if bulkhead}}
+        return bulkhead.read(() -> {{entityVarName}}Repository.findByKey(id));
+{{else}}
+        return {{entityVarName}}Repository.findByKey(id);
+{{/if}}
+    }
+
+    /**
+     * 根據主鍵 批次查詢 {{entityVarName}}，分段查詢，不會 逐筆查詢
+     * @param ids 主鍵值 清單
+     * @return 查詢到的 {{entityVarName}} 清單，查無資料的主鍵 不會出現
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional(readOnly = true)
+{{/unless}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "findAllByIds"}, histogram = true)
+{{/if}}
+    public List<{{entityName}}> findAllByIds(Collection<{{keyType}}> ids) {
+{{#if bulkhead}}
+        return bulkhead.read(() -> {{entityVarName}}Repository.findAllByKeys(ids));
+{{else}}
+        return {{entityVarName}}Repository.findAllByKeys(ids);
+{{/if}}
+    }
+
+    /**
+     * 根據主鍵 刪除 {{entityVarName}}，直接執行 DELETE，不會 先查詢
+     * @param id 主鍵值
+     * @return 刪除筆數
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CacheEvict(key = "#id")
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "deleteById"}, histogram = true)
+{{/if}}
+    public int deleteById({{keyType}} id) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.deleteByKey(id));
+{{else}}
+        return {{entityVarName}}Repository.deleteByKey(id);
+{{/if}}
+    }
+
+    /**
+     * 根據主鍵 批次刪除 {{entityVarName}}
+     * @param ids 主鍵值 清單
+     * @return 刪除筆數
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if cached}}
+    @CacheEvict(allEntries = true)
+{{/if}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "deleteAllByIds"}, histogram = true)
+{{/if}}
+    public int deleteAllByIds(List<{{keyType}}> ids) {
+{{#if bulkhead}}
+        return bulkhead.write(() -> {{entityVarName}}Repository.deleteAllByKeys(ids, BATCH_SIZE));
+{{else}}
+        return {{entityVarName}}Repository.deleteAllByKeys(ids, BATCH_SIZE);
+{{/if}}
+    }
+{{else}}
+    // 無主鍵者，自行處理 查詢 方法實作
+
+    /**
+     * 單筆刪除 {{entityVarName}}
+     * @param entity 要刪除的 {{entityVarName}}
+     */
+    @Override
+{{#unless bulkhead}}
+    @Transactional
+{{/unless}}
+{{#if metrics}}
+    @Timed(value = "db.operation", extraTags = {"table", "{{tableName}}", "operation", "deleteByEntity"}, histogram = true)
+{{/if}}
+    public void deleteByEntity({{keyType}} entity) {
+{{#if bulkhead}}
+        bulkhead.write(() -> {
+            if ({{entityVarName}}Repository.existsById(entity)) {
+                {{entityVarName}}Repository.deleteById(entity);
+            }
+        });
+{{else}}
+        if ({{entityVarName}}Repository.existsById(entity)) {
+            {{entityVarName}}Repository.deleteById(entity);
+        }
+{{/if}}
+    }
+{{/if}}
+}
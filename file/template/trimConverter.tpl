@@ -0,0 +1,37 @@
+{{! CHAR 欄位 去除空白 的 AttributeConverter，string.trim=converter 時 產生，所有 entity 共用 }}
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * 去除 CHAR 欄位 以 空白 補齊的 尾端空白 <br/>
+ * 讀取時 只處理一次，getter 直接回傳 欄位值，序列化 JSON 時 不會 每次 建立新字串
+ */
+@Converter
+public class TrimConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return attribute;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return trimTrailing(dbData);
+    }
+
+    /**
+     * 去除 尾端空白，沒有 尾端空白 時 回傳 原字串
+     * @param value 字串，可為 null
+     * @return 去除 尾端空白 後的字串
+     */
+    public static String trimTrailing(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end == value.length() ? value : value.substring(0, end);
+    }
+}
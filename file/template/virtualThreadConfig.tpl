@@ -0,0 +1,30 @@
+{{! virtual thread 設定，virtual.threads=true 時 產生，需 Java 21 以上 }}
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class VirtualThreadConfig {
+    /**
+     * Tomcat 每個 HTTP 請求 使用 一個 virtual thread，請求數 不再受 執行緒池 大小 限制 <br/>
+     * 資料庫 的 同時存取數 由 各 ServiceImpl 的 DbBulkhead 限制
+     * @return Tomcat 設定
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @Async 與 非同步 請求 使用 virtual thread
+     * @return 非同步 工作的 執行器
+     */
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -1,80 +1,47 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static utils.BasicUtil.*;
+import config.GeneratorConfig;
+import dialect.Dialect;
+import model.TableModel;
+import template.TemplateEngine;
+import utils.FileUtil;
+import utils.GenerationManifest;
+import utils.Profiler;
+
+import static utils.ConfigUtil.*;
+import static utils.ContextUtil.globalContext;
+import static utils.ContextUtil.tableContext;
+import static utils.BatchUtil.generateBatchJob;
 import static utils.ControllerUtil.generateController;
 import static utils.EntityUtil.*;
+import static utils.FileUtil.getUnchangedCount;
+import static utils.FileUtil.getWrittenCount;
 import static utils.RepositoryUtil.generateRepository;
 import static utils.RepositoryUtil.generateRepositoryImpl;
+import static utils.SchemaUtil.parseSchema;
 import static utils.ServiceUtil.generateServiceImpl;
 import static utils.ServiceUtil.generateServiceInterface;
 
 public class Application {
     public static void main(String[] args) {
         try {
-            File inputFile = new File("file/input.txt");
-            File pkFile = new File("file/primary_keys.txt");
-
-            // 生成 共用資料夾
-            new File("file").mkdirs();
-            new File("file/output").mkdirs();
-
-            // 讀取主鍵定義
-            Set<String> primaryKeys = new HashSet<>();
-            if (pkFile.exists()) {
-                BufferedReader pkReader = new BufferedReader(new FileReader(pkFile));
-                String pkLine;
-                while ((pkLine = pkReader.readLine()) != null) {
-                    if (!pkLine.trim().isEmpty()) {
-                        primaryKeys.add(pkLine.trim());
-                    }
-                }
-                pkReader.close();
+            long startTime = System.currentTimeMillis();
+            GeneratorConfig config = GeneratorConfig.load(args);
+            if (config.isProfile()) {
+                Profiler.enable();
             }
-            Boolean primaryKeyExists = primaryKeys.size() > 0 ? true : false;
+            Profiler.Span setup = Profiler.start();
+            TemplateEngine engine = new TemplateEngine(config.getTemplateDirs());
+            Dialect dialect = config.getDialect();
+            Map<String, Object> globals = globalContext(config);
 
-            // 讀取 input.txt
-            BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-            String entityName = "";
-            String tableName = "";
-            String entityScheamName = "";
-            List<String[]> fields = new ArrayList<>(); // 儲存欄位資訊
-
-            // 先解析出 entityName 和 fields
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.toUpperCase().startsWith("CREATE TABLE")) {
-                    String[] parts = line.split("\\s+");
-                    tableName = parts[2];
-                    entityName = toCamelCase(tableName, true); // 首字母大寫
-                    // 取得 中文註解
-                    String schemaName = "";
-                    for (int i = 0; i < parts.length; i++) {
-                        if ("--".equals(parts[i])) {
-                            entityScheamName = parts[i+1];
-                        }
-                    }
-                } else if (!line.isEmpty() && !line.equals(")")) {
-                    String[] parts = line.trim().replace(",", "").split("\\s+");
-                    String fieldName = toCamelCase(parts[0], false);
-                    String sqlType = parts[1];
-                    String javaType = mapSqlType(sqlType);
-                    // 取得 中文註解
-                    String schemaName = "";
-                    for (int i = 0; i < parts.length; i++) {
-                        if ("--".equals(parts[i])) {
-                            schemaName = parts[i+1];
-                        }
-                    }
-                    fields.add(new String[]{fieldName, javaType, parts[0], schemaName});
-                    // 針對無主鍵者，所有欄位都變成主鍵
-                    if (!primaryKeyExists) {
-                        primaryKeys.add(parts[0].trim());
-                    }
-                }
-            }
-            reader.close();
+            // 讀取 增量生成紀錄，--force 時 全部重新生成；template 修改時 視為 產出格式變更
+            GenerationManifest manifest = GenerationManifest.load(config.getManifestFile(),
+                    config.fingerprint() + "template=" + engine.fingerprint() + "\n");
+            AtomicInteger skipped = new AtomicInteger();
 
             // 生成 資料夾
             new File("file/output/entity").mkdirs();
@@ -83,17 +50,146 @@ public class Application {
             new File("file/output/controller").mkdirs();
             new File("file/output/service").mkdirs();
             new File("file/output/service/impl").mkdirs();
+            new File("file/output/dto").mkdirs();
+            Profiler.end(setup, "setup");
 
-            // 生成 Entity, Repository, service, serviceImpl 和 Controller
-            generateEntity(entityName, entityScheamName, fields, primaryKeys, primaryKeyExists);
-            generateRepository(entityName, fields, primaryKeys);
-            generateRepositoryImpl(entityName, fields, primaryKeys, primaryKeyExists);
-            generateServiceInterface(entityName, fields, primaryKeys, primaryKeyExists);
-            generateServiceImpl(entityName, fields, primaryKeys, primaryKeyExists);
-            generateController(entityName, entityScheamName, fields, primaryKeys, primaryKeyExists);
+            // 所有 table 共用的 檔案
+            Profiler.Span shared = Profiler.start();
+            FileUtil.startRecording();
+            if (config.isTrimConverter()) {
+                generateTrimConverter(engine, globals);
+            }
+            if (config.getBoolean("cache.enabled", false)) {
+                new File("file/output/config").mkdirs();
+                generateCachingConfig(engine, globals);
+            }
+            if (Boolean.TRUE.equals(globals.get("metrics"))) {
+                new File("file/output/config").mkdirs();
+                generateMetricsConfig(engine, globals);
+            }
+            if (Boolean.TRUE.equals(globals.get("virtualThreads"))) {
+                new File("file/output/config").mkdirs();
+                generateVirtualThreadConfig(engine, globals);
+            }
+            if (Boolean.TRUE.equals(globals.get("bulkhead"))) {
+                new File("file/output/config").mkdirs();
+                generateDbBulkhead(engine, globals);
+            }
+            if (Boolean.TRUE.equals(globals.get("batchJob"))) {
+                new File("file/output/config").mkdirs();
+                new File("file/output/batch").mkdirs();
+                generateBatchConfig(engine, globals);
+            }
+            manifest.recordShared(FileUtil.stopRecording());
+            Profiler.end(shared, "shared");
+
+            // 串流讀取 input.txt，每解析完 一個 table 就交給 執行緒池 生成，依 CPU 核心數 平行處理
+            // 佇列已滿時 由解析的執行緒 自行生成，避免 解析速度 大於 生成速度 時 table 堆積在記憶體
+            int threads = Runtime.getRuntime().availableProcessors();
+            ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads * 4), new ThreadPoolExecutor.CallerRunsPolicy());
+            Map<String, Future<Void>> futures = new LinkedHashMap<>();
+            int tableCount;
+            Profiler.Span parse = Profiler.start();
+            try {
+                tableCount = parseSchema(config.getInputFile(), config.getPrimaryKeyFile(), config.getProjectionFile(), dialect,
+                        config.isKeylessUniqueKey(), config.isSchemaPrescan(), table -> futures.put(table.getTableName(), executor.submit(() -> {
+                    // table 定義、主鍵、產生器版本 與 設定 皆未變更 且 產出的檔案 皆存在 者 略過
+                    if (!config.isForce() && manifest.isUnchanged(table)) {
+                        skipped.incrementAndGet();
+                        return null;
+                    }
+                    Profiler.Span tableSpan = Profiler.startTable(table.getTableName());
+                    FileUtil.startRecording();
+                    boolean generated = false;
+                    try {
+                        generateTable(table, engine, dialect, globals);
+                        generated = true;
+                    } finally {
+                        manifest.record(table, FileUtil.stopRecording(), generated);
+                        Profiler.endTable(tableSpan);
+                    }
+                    return null;
+                })));
+            } finally {
+                executor.shutdown();
+                // 佇列已滿時 由解析的執行緒 生成的 table 不計入 解析時間
+                Profiler.end(parse, "parse");
+            }
+
+            // 等待 全部 table 生成完畢，單一 table 失敗 不影響 其他 table
+            Profiler.Span wait = Profiler.start();
+            int failed = 0;
+            for (Map.Entry<String, Future<Void>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println("生成 " + entry.getKey() + " 失敗：");
+                    e.getCause().printStackTrace();
+                }
+            }
+            Profiler.end(wait, "wait");
+            Profiler.Span save = Profiler.start();
+            manifest.removeStaleFiles();
+            manifest.save();
+            Profiler.end(save, "manifest");
+            System.out.println("共 " + tableCount + " 個 table，未變更略過 " + skipped.get() + " 個，失敗 " + failed + " 個；"
+                    + "寫入 " + getWrittenCount() + " 個檔案，內容相同未寫入 " + getUnchangedCount() + " 個；耗時 "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+            if (Profiler.isEnabled()) {
+                Profiler.report(config.getProfileFile(), System.currentTimeMillis() - startTime, tableCount, skipped.get(), failed);
+            }
+            // 全部 table 處理完畢後，有 失敗者 以 非 0 結束，讓 建置腳本 與 CI 得知
+            if (failed > 0) {
+                System.exit(1);
+            }
 
-        } catch (IOException e) {
+        } catch (IOException | InterruptedException e) {
             e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 生成 單一 table 的 Entity, projection DTO, Repository, service, serviceImpl, Controller 和 批次工作
+     * @param table table 定義
+     * @param engine template 引擎
+     * @param dialect 資料庫方言
+     * @param globals 所有 table 共用的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    private static void generateTable(TableModel table, TemplateEngine engine, Dialect dialect,
+                                      Map<String, Object> globals) throws IOException {
+        // template 變數 每個 table 只建立一次
+        Profiler.Span span = Profiler.start();
+        Map<String, Object> context = tableContext(table, dialect, globals);
+        Profiler.end(span, "context");
+        span = Profiler.start();
+        generateEntity(table, engine, context);
+        Profiler.end(span, "entity");
+        span = Profiler.start();
+        generateProjections(table, engine, context);
+        Profiler.end(span, "projections");
+        span = Profiler.start();
+        generateRepository(table, engine, context);
+        Profiler.end(span, "repository");
+        span = Profiler.start();
+        generateRepositoryImpl(table, engine, context);
+        Profiler.end(span, "repositoryImpl");
+        span = Profiler.start();
+        generateServiceInterface(table, engine, context);
+        Profiler.end(span, "service");
+        span = Profiler.start();
+        generateServiceImpl(table, engine, context);
+        Profiler.end(span, "serviceImpl");
+        span = Profiler.start();
+        generateController(table, engine, context);
+        Profiler.end(span, "controller");
+        if (Boolean.TRUE.equals(context.get("batchJob"))) {
+            span = Profiler.start();
+            generateBatchJob(table, engine, context);
+            Profiler.end(span, "batchJob");
         }
     }
 
@@ -0,0 +1,180 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import config.GeneratorConfig;
+import dialect.Dialect;
+import model.ColumnModel;
+import model.TableModel;
+import template.TemplateEngine;
+import utils.BasicUtil;
+import utils.ContextUtil;
+import utils.SchemaUtil;
+
+/**
+ * 產生器 各階段的 JMH 基準測試，以 合成 schema 量測 命名轉換、型別對應、DDL 解析 與 各檔案的生成 <br/>
+ * 於 專案根目錄 執行：gradle jmh，結果 以 JMH 的 JSON (-rf json) 輸出至 file/benchmark.json <br/>
+ * 設定 (方言、樣板資料夾 等) 讀取 file/generator.properties；JMH 參數 以 -PjmhArgs 傳入，如：-PjmhArgs="-p columns=1000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class GeneratorBenchmark {
+    /** 合成欄位 的 名稱字首，涵蓋 單字 與 多段底線 */
+    private static final String[] NAMES = {"client_id", "names", "addr_ind", "tel_no_1", "last_upd_date_time"};
+    /** 合成欄位 的 型別，涵蓋 各種 型別對應 與 型別參數 */
+    private static final String[] TYPES = {"CHAR(10)", "VARCHAR(200)", "INTEGER", "INT8", "SMALLINT", "FLOAT",
+            "DECIMAL(10,2)", "DATETIME YEAR TO SECOND", "LVARCHAR(2000)", "SERIAL"};
+
+    /** 合成 schema 的 欄位數量 */
+    @Param({"10", "1000", "100000"})
+    public int columns;
+
+    private TemplateEngine engine;
+    private Dialect dialect;
+    private Map<String, Object> globals;
+    private boolean uniqueKeyIdentity;
+    private File schemaFile;
+    /** 不存在的檔案，不使用 主鍵檔 */
+    private File pkFile;
+    /** 不存在的檔案，不產生 projection */
+    private File projectionFile;
+    private TableModel table;
+    private Map<String, Object> context;
+    private List<String> columnNames;
+    private List<String> sqlTypes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GeneratorConfig config = GeneratorConfig.load(new String[0]);
+        engine = new TemplateEngine(config.getTemplateDir());
+        dialect = config.getDialect();
+        globals = ContextUtil.globalContext(config);
+        uniqueKeyIdentity = config.isKeylessUniqueKey();
+        schemaFile = writeSchema(columns);
+        pkFile = new File(schemaFile.getPath() + ".keys");
+        projectionFile = new File(schemaFile.getPath() + ".projections");
+
+        List<TableModel> tables = new ArrayList<>(1);
+        SchemaUtil.parseSchema(schemaFile, pkFile, projectionFile, dialect, uniqueKeyIdentity, false, tables::add);
+        table = tables.get(0);
+        context = ContextUtil.tableContext(table, dialect, globals);
+        columnNames = new ArrayList<>(columns);
+        sqlTypes = new ArrayList<>(columns);
+        for (ColumnModel column : table.getColumns()) {
+            columnNames.add(column.getColumnName());
+            sqlTypes.add(column.getSqlType());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(schemaFile.toPath());
+    }
+
+    // 每次操作 處理 整個 schema 的欄位
+
+    @Benchmark
+    public void toCamelCase(Blackhole blackhole) {
+        for (String name : columnNames) {
+            blackhole.consume(BasicUtil.toCamelCase(name, false));
+        }
+    }
+
+    @Benchmark
+    public void dialectMap(Blackhole blackhole) {
+        for (String type : sqlTypes) {
+            blackhole.consume(dialect.map(type));
+        }
+    }
+
+    @Benchmark
+    public void parseSchema(Blackhole blackhole) throws IOException {
+        SchemaUtil.parseSchema(schemaFile, pkFile, projectionFile, dialect, uniqueKeyIdentity, false, blackhole::consume);
+    }
+
+    @Benchmark
+    public Map<String, Object> tableContext() {
+        return ContextUtil.tableContext(table, dialect, globals);
+    }
+
+    // 各 generate 方法 對應的 樣板，生成時間 不含 寫入檔案
+
+    @Benchmark
+    public String generateEntity() {
+        return engine.render("entity", context);
+    }
+
+    @Benchmark
+    public void generateRepository(Blackhole blackhole) {
+        blackhole.consume(engine.render("repository", context));
+        blackhole.consume(engine.render("customRepository", context));
+    }
+
+    @Benchmark
+    public String generateRepositoryImpl() {
+        return engine.render("customRepositoryImpl", context);
+    }
+
+    @Benchmark
+    public String generateServiceInterface() {
+        return engine.render("service", context);
+    }
+
+    @Benchmark
+    public String generateServiceImpl() {
+        return engine.render("serviceImpl", context);
+    }
+
+    @Benchmark
+    public String generateController() {
+        return engine.render("controller", context);
+    }
+
+    /**
+     * 建立 合成 schema：單一 table，指定數量的欄位，第一個欄位 為 主鍵
+     * @param columns 欄位數量
+     * @return 暫存的 schema 檔案
+     * @throws IOException 寫入檔案時的錯誤
+     */
+    private static File writeSchema(int columns) throws IOException {
+        File file = File.createTempFile("benchmark-schema-", ".sql");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("CREATE TABLE \"informix\".bench_tbl (   -- 基準測試\n");
+            for (int i = 0; i < columns; i++) {
+                String name = NAMES[i % NAMES.length] + "_" + i;
+                String type = TYPES[i % TYPES.length];
+                writer.write("    " + name + "  " + type + (i % 3 == 0 ? " NOT NULL" : "") + ",  -- 欄位 " + i + "\n");
+            }
+            writer.write("    PRIMARY KEY (" + NAMES[0] + "_0)\n");
+            writer.write(");\n");
+        }
+        return file;
+    }
+}
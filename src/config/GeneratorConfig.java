@@ -0,0 +1,241 @@
+package config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import dialect.Dialect;
+import dialect.Dialects;
+
+/**
+ * 產生器設定 <br/>
+ * 先讀取 file/generator.properties，再以 命令列參數 覆寫：
+ * --key=value 設定值，--key 等同 --key=true
+ */
+public final class GeneratorConfig {
+    /** 設定檔位置 */
+    public static final String CONFIG_FILE = "file/generator.properties";
+
+    /** 只影響 執行方式、不影響 產出內容 的設定，不列入 fingerprint */
+    private static final Set<String> RUNTIME_KEYS = new HashSet<>(Arrays.asList(
+            "input", "primary.keys", "projections", "manifest", "force", "template.dir", "profile", "profile.file"));
+
+    /** 自訂型別對應 的 設定名稱字首 */
+    private static final String TYPE_PREFIX = "type.";
+
+    private final Properties properties;
+
+    private GeneratorConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 讀取 設定檔 與 命令列參數
+     * @param args 命令列參數
+     * @return 產生器設定
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    public static GeneratorConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        File configFile = new File(CONFIG_FILE);
+        if (configFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(configFile.toPath(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("無法識別的參數：" + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                properties.setProperty(arg.substring(2), "true");
+            } else {
+                properties.setProperty(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return new GeneratorConfig(properties);
+    }
+
+    /**
+     * @param key 設定名稱
+     * @param defaultValue 未設定時的預設值
+     * @return 設定值
+     */
+    public String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * @param key 設定名稱
+     * @param defaultValue 未設定時的預設值
+     * @return 設定值
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * @param key 設定名稱
+     * @param defaultValue 未設定時的預設值
+     * @return 設定值
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("設定 " + key + " 必須為數字：" + value);
+        }
+    }
+
+    /** @return CREATE TABLE 語句檔案 */
+    public File getInputFile() {
+        return new File(get("input", "file/input.txt"));
+    }
+
+    /** @return 主鍵定義檔案 */
+    public File getPrimaryKeyFile() {
+        return new File(get("primary.keys", "file/primary_keys.txt"));
+    }
+
+    /** @return projection 定義檔案 */
+    public File getProjectionFile() {
+        return new File(get("projections", "file/projections.txt"));
+    }
+
+    /** @return template 所在資料夾 */
+    public File getTemplateDir() {
+        return new File(get("template.dir", "file/template"));
+    }
+
+    /**
+     * template 的 尋找順序，reactive 時 先找 reactive 子資料夾，其餘 沿用 共用的 template
+     * @return template 所在資料夾
+     */
+    public File[] getTemplateDirs() {
+        File templateDir = getTemplateDir();
+        if (isReactive()) {
+            return new File[]{new File(templateDir, "reactive"), templateDir};
+        }
+        return new File[]{templateDir};
+    }
+
+    /**
+     * 產出的 程式碼 類型：jpa (JpaRepository + Spring MVC) 或 reactive (R2DBC + WebFlux)
+     * @return 是否 產出 reactive 程式碼
+     * @throws IllegalArgumentException 設定值 不是 jpa 或 reactive，或 reactive 搭配 不支援的設定 時
+     */
+    public boolean isReactive() {
+        String target = get("target", "jpa");
+        if (!"jpa".equals(target) && !"reactive".equals(target)) {
+            throw new IllegalArgumentException("設定 target 必須為 jpa 或 reactive：" + target);
+        }
+        if (!"reactive".equals(target)) {
+            return false;
+        }
+        if (isTrimConverter()) {
+            throw new IllegalArgumentException("target=reactive 不支援 string.trim=converter，AttributeConverter 為 JPA 的功能");
+        }
+        if (getBoolean("cache.enabled", false)) {
+            throw new IllegalArgumentException("target=reactive 不支援 cache.enabled，Spring Cache 無法快取 Mono、Flux 的結果");
+        }
+        if (getBoolean("metrics.enabled", false)) {
+            throw new IllegalArgumentException("target=reactive 不支援 metrics.enabled，@Timed 無法量測 Mono、Flux 的 執行時間");
+        }
+        if (getBoolean("virtual.threads", false) || getInt("db.max.concurrency", 0) > 0) {
+            throw new IllegalArgumentException("target=reactive 不支援 virtual.threads、db.max.concurrency，reactive 不以 執行緒 等待 資料庫");
+        }
+        if (getBoolean("batch.job", false)) {
+            throw new IllegalArgumentException("target=reactive 不支援 batch.job，Spring Batch 以 JDBC 讀寫");
+        }
+        return true;
+    }
+
+    /**
+     * 資料庫方言，加上 type.xxx=Java 類型 的 自訂型別對應 <br/>
+     * 多個字的型別 以 反斜線 跳脫空白，如：type.datetime\ year\ to\ day=java.time.LocalDate
+     * @return 資料庫方言
+     */
+    public Dialect getDialect() {
+        Map<String, String> mappings = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (key.startsWith(TYPE_PREFIX) && key.length() > TYPE_PREFIX.length()) {
+                mappings.put(key.substring(TYPE_PREFIX.length()), get(key, "String"));
+            }
+        }
+        return Dialects.get(get("dialect", Dialects.DEFAULT)).withMappings(mappings);
+    }
+
+    /**
+     * CHAR 欄位 去除空白 的方式：getter (每次呼叫 getter 時 去除) 或 converter (讀取時 以 AttributeConverter 去除一次)
+     * @return 是否 以 AttributeConverter 去除
+     * @throws IllegalArgumentException 設定值 不是 getter 或 converter 時
+     */
+    public boolean isTrimConverter() {
+        String trim = get("string.trim", "getter");
+        if (!"getter".equals(trim) && !"converter".equals(trim)) {
+            throw new IllegalArgumentException("設定 string.trim 必須為 getter 或 converter：" + trim);
+        }
+        return "converter".equals(trim);
+    }
+
+    /**
+     * 無主鍵 的 table 的 識別方式：unique (以 欄位 皆為 NOT NULL 的 唯一鍵 作為 主鍵，找不到時 以 全部欄位) 或 columns (一律 以 全部欄位)
+     * @return 是否 以 唯一鍵 作為 主鍵
+     * @throws IllegalArgumentException 設定值 不是 unique 或 columns 時
+     */
+    public boolean isKeylessUniqueKey() {
+        String identity = get("keyless.identity", "unique");
+        if (!"unique".equals(identity) && !"columns".equals(identity)) {
+            throw new IllegalArgumentException("設定 keyless.identity 必須為 unique 或 columns：" + identity);
+        }
+        return "unique".equals(identity);
+    }
+
+    /** @return 是否 先掃描 一次 schema 收集 條件約束，用於 條件約束 放在 schema 最後 者 (如：pg_dump) */
+    public boolean isSchemaPrescan() {
+        return getBoolean("schema.prescan", false);
+    }
+
+    /** @return 增量生成的 紀錄檔 */
+    public File getManifestFile() {
+        return new File(get("manifest", "file/.manifest"));
+    }
+
+    /** @return 是否忽略 紀錄檔，全部重新生成 */
+    public boolean isForce() {
+        return getBoolean("force", false);
+    }
+
+    /** @return 是否 記錄 各階段 與 各 table 的 執行時間 */
+    public boolean isProfile() {
+        return getBoolean("profile", false);
+    }
+
+    /** @return 效能紀錄 的 JSON 報告 檔案 */
+    public File getProfileFile() {
+        return new File(get("profile.file", "file/profile.json"));
+    }
+
+    /**
+     * 影響 產出內容 的設定摘要，設定變更時 所有 table 都需重新生成
+     * @return 依名稱排序的 設定內容
+     */
+    public String fingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (!RUNTIME_KEYS.contains(key)) {
+                fingerprint.append(key).append('=').append(properties.getProperty(key).trim()).append('\n');
+            }
+        }
+        return fingerprint.toString();
+    }
+}
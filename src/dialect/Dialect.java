@@ -0,0 +1,202 @@
+package dialect;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 資料庫方言 的 型別對應表 <br/>
+ * 型別 正規化 (小寫、去除型別參數、合併空白) 後 以 雜湊表 查詢，每個欄位 O(1) <br/>
+ * 先以 完整型別 (如：datetime year to day) 查詢，找不到 再以 第一個字 (如：datetime) 查詢 <br/>
+ * 另記錄 產生 SQL 時 各資料庫 不同的語法
+ */
+public final class Dialect {
+    private final String name;
+    private final Map<String, TypeRule> rules;
+    private UpsertStyle upsertStyle = UpsertStyle.MERGE;
+    private String mergeSource = "(SELECT 1 AS dummy)";
+    private String mergeTerminator = "";
+    private String limitPrefix = "";
+    private String limitSuffix = " FETCH FIRST :limit ROWS ONLY";
+    private boolean rowValueIn = false;
+
+    /**
+     * @param name 方言名稱 (如：informix)
+     * @param parent 沿用的 型別對應表，可為 null
+     */
+    Dialect(String name, Dialect parent) {
+        this.name = name;
+        this.rules = parent == null ? new HashMap<>() : new HashMap<>(parent.rules);
+        if (parent != null) {
+            this.upsertStyle = parent.upsertStyle;
+            this.mergeSource = parent.mergeSource;
+            this.mergeTerminator = parent.mergeTerminator;
+            this.limitPrefix = parent.limitPrefix;
+            this.limitSuffix = parent.limitSuffix;
+            this.rowValueIn = parent.rowValueIn;
+        }
+    }
+
+    /** @return 方言名稱 (如：informix) */
+    public String getName() {
+        return name;
+    }
+
+    /** @return 新增或更新 的 SQL 語法 */
+    public UpsertStyle getUpsertStyle() {
+        return upsertStyle;
+    }
+
+    /** @return MERGE 的 USING 來源，只有一筆資料 (如：dual) */
+    public String getMergeSource() {
+        return mergeSource;
+    }
+
+    /** @return MERGE 語句 的 結尾 (SQL Server 必須以 分號 結尾) */
+    public String getMergeTerminator() {
+        return mergeTerminator;
+    }
+
+    /** @return 限制筆數 時 加在 SELECT 之後的語法 (如：FIRST :limit)，參數名稱 為 limit */
+    public String getLimitPrefix() {
+        return limitPrefix;
+    }
+
+    /** @return 限制筆數 時 加在 語句最後的語法 (如：LIMIT :limit)，參數名稱 為 limit */
+    public String getLimitSuffix() {
+        return limitSuffix;
+    }
+
+    /** @return 是否支援 多欄位 的 IN 條件 (如：(a, b) IN ((1, 2), (3, 4)))，不支援者 以 OR 串接 */
+    public boolean isRowValueIn() {
+        return rowValueIn;
+    }
+
+    /**
+     * 設定 是否支援 多欄位 的 IN 條件，只在 建立方言 時使用
+     * @param rowValueIn 是否支援
+     */
+    void setRowValueIn(boolean rowValueIn) {
+        this.rowValueIn = rowValueIn;
+    }
+
+    /**
+     * 設定 限制筆數 的 SQL 語法，只在 建立方言 時使用
+     * @param limitPrefix 加在 SELECT 之後的語法
+     * @param limitSuffix 加在 語句最後的語法
+     */
+    void setLimit(String limitPrefix, String limitSuffix) {
+        this.limitPrefix = limitPrefix;
+        this.limitSuffix = limitSuffix;
+    }
+
+    /**
+     * 設定 新增或更新 的 SQL 語法，只在 建立方言 時使用
+     * @param upsertStyle SQL 語法
+     * @param mergeSource MERGE 的 USING 來源
+     * @param mergeTerminator MERGE 語句 的 結尾
+     */
+    void setUpsert(UpsertStyle upsertStyle, String mergeSource, String mergeTerminator) {
+        this.upsertStyle = upsertStyle;
+        this.mergeSource = mergeSource;
+        this.mergeTerminator = mergeTerminator;
+    }
+
+    /**
+     * 新增 型別對應，只在 建立方言 時使用
+     * @param sqlTypes 資料庫型別，可為 多個字 (如：double precision)
+     * @param rule 對應規則
+     */
+    void put(TypeRule rule, String... sqlTypes) {
+        for (String sqlType : sqlTypes) {
+            rules.put(normalize(sqlType), rule);
+        }
+    }
+
+    /**
+     * 新增 固定的 型別對應，只在 建立方言 時使用
+     * @param javaType Java 類型 (如：java.math.BigDecimal)
+     * @param sqlTypes 資料庫型別
+     */
+    void put(String javaType, String... sqlTypes) {
+        put(TypeRule.of(javaType), sqlTypes);
+    }
+
+    /**
+     * 加入 使用者自訂的 型別對應，優先於 內建的對應
+     * @param mappings 資料庫型別 對應 Java 類型 (如：money -> java.math.BigDecimal)
+     * @return 新的方言，原方言 不變
+     */
+    public Dialect withMappings(Map<String, String> mappings) {
+        if (mappings.isEmpty()) {
+            return this;
+        }
+        Dialect dialect = new Dialect(name, this);
+        for (Map.Entry<String, String> mapping : mappings.entrySet()) {
+            dialect.put(mapping.getValue(), mapping.getKey());
+        }
+        return dialect;
+    }
+
+    /**
+     * 根據 資料庫欄位型別 對應 Java 類型，未定義的型別 保持原樣 (小寫、不含型別參數)
+     * @param sqlType 資料庫欄位型別 (如：DECIMAL(10,2)、DATETIME YEAR TO SECOND)
+     * @return Java 類型
+     */
+    public JavaType map(String sqlType) {
+        String type = sqlType.toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(type.length());
+        int precision = -1;
+        int scale = -1;
+        boolean argumentsRead = false;
+        for (int i = 0; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (c == '(') {
+                int close = type.indexOf(')', i);
+                close = close < 0 ? type.length() : close;
+                // 只採用 第一組 型別參數，如 DATETIME YEAR TO FRACTION(3) 的 3
+                if (!argumentsRead) {
+                    String[] arguments = type.substring(i + 1, close).split(",");
+                    precision = parseArgument(arguments[0]);
+                    scale = arguments.length > 1 ? parseArgument(arguments[1]) : -1;
+                    argumentsRead = true;
+                }
+                i = close;
+            } else if (Character.isWhitespace(c)) {
+                if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                    normalized.append(' ');
+                }
+            } else {
+                normalized.append(c);
+            }
+        }
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == ' ') {
+            end--;
+        }
+        String fullType = normalized.substring(0, end);
+        TypeRule rule = rules.get(fullType);
+        int space = fullType.indexOf(' ');
+        String baseType = space < 0 ? fullType : fullType.substring(0, space);
+        if (rule == null && space >= 0) {
+            rule = rules.get(baseType);
+        }
+        return rule == null ? JavaType.of(baseType) : rule.resolve(precision, scale);
+    }
+
+    private static int parseArgument(String argument) {
+        try {
+            return Integer.parseInt(argument.trim());
+        } catch (NumberFormatException e) {
+            // 如 VARCHAR(MAX)
+            return -1;
+        }
+    }
+
+    /**
+     * 正規化 型別名稱：小寫、合併空白
+     */
+    private static String normalize(String sqlType) {
+        return sqlType.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,175 @@
+package dialect;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 內建的 資料庫方言：informix、oracle、postgresql、mysql、sqlserver
+ */
+public final class Dialects {
+    /** 預設方言 */
+    public static final String DEFAULT = "informix";
+
+    private static final String STRING = "String";
+    private static final String BIG_DECIMAL = "java.math.BigDecimal";
+    private static final String LOCAL_DATE = "java.time.LocalDate";
+    private static final String LOCAL_TIME = "java.time.LocalTime";
+    private static final String LOCAL_DATE_TIME = "java.time.LocalDateTime";
+    private static final String OFFSET_DATE_TIME = "java.time.OffsetDateTime";
+    private static final String BYTES = "byte[]";
+
+    private static final Map<String, Dialect> DIALECTS;
+
+    static {
+        Map<String, Dialect> dialects = new LinkedHashMap<>();
+        Dialect ansi = ansi();
+        for (Dialect dialect : new Dialect[]{informix(ansi), oracle(ansi), postgresql(ansi), mysql(ansi), sqlserver(ansi)}) {
+            dialects.put(dialect.getName(), dialect);
+        }
+        DIALECTS = Collections.unmodifiableMap(dialects);
+    }
+
+    private Dialects() {
+    }
+
+    /**
+     * @param name 方言名稱，不分大小寫 (如：informix)
+     * @return 方言
+     * @throws IllegalArgumentException 無此方言時
+     */
+    public static Dialect get(String name) {
+        Dialect dialect = DIALECTS.get(name.trim().toLowerCase());
+        if (dialect == null) {
+            throw new IllegalArgumentException("不支援的 dialect：" + name + "，可使用 " + DIALECTS.keySet());
+        }
+        return dialect;
+    }
+
+    /**
+     * DECIMAL(p,s) 的對應：有小數位數 為 BigDecimal，整數 依精度 為 Integer、Long 或 BigDecimal
+     * @param missingScaleIsZero 只指定精度 DECIMAL(p) 時，小數位數 是否為 0 (Informix 為 浮點數)
+     * @return 對應規則
+     */
+    private static TypeRule decimal(boolean missingScaleIsZero) {
+        JavaType bigDecimal = JavaType.of(BIG_DECIMAL);
+        JavaType integer = JavaType.of("Integer");
+        JavaType longType = JavaType.of("Long");
+        return (precision, scale) -> {
+            if (precision < 0 || scale > 0 || (scale < 0 && !missingScaleIsZero)) {
+                return bigDecimal;
+            }
+            if (precision <= 9) {
+                return integer;
+            }
+            return precision <= 18 ? longType : bigDecimal;
+        };
+    }
+
+    /**
+     * 各資料庫 共通的 標準型別
+     */
+    private static Dialect ansi() {
+        Dialect dialect = new Dialect("ansi", null);
+        dialect.put(STRING, "char", "character", "varchar", "nchar", "nvarchar", "text", "clob", "nclob");
+        dialect.put("Short", "smallint");
+        dialect.put("Integer", "int", "integer");
+        dialect.put("Long", "bigint");
+        dialect.put(decimal(true), "decimal", "dec", "numeric");
+        dialect.put("Float", "real");
+        dialect.put("Double", "float", "double", "double precision");
+        dialect.put(LOCAL_DATE, "date");
+        dialect.put(LOCAL_TIME, "time");
+        dialect.put(LOCAL_DATE_TIME, "timestamp");
+        dialect.put(OFFSET_DATE_TIME, "timestamp with time zone");
+        dialect.put("Boolean", "boolean");
+        dialect.put(BYTES, "blob", "binary", "varbinary");
+        return dialect;
+    }
+
+    private static Dialect informix(Dialect ansi) {
+        Dialect dialect = new Dialect("informix", ansi);
+        dialect.setUpsert(UpsertStyle.MERGE, "(SELECT 1 AS dummy FROM systables WHERE tabid = 1)", "");
+        dialect.setLimit("FIRST :limit ", "");
+        dialect.put(STRING, "lvarchar");
+        dialect.put("Long", "int8", "serial", "serial8", "bigserial");
+        dialect.put("Integer", "int4");
+        dialect.put(decimal(false), "decimal", "dec", "numeric");
+        dialect.put(BIG_DECIMAL, "money");
+        dialect.put("Double", "smallfloat");
+        dialect.put(LOCAL_DATE_TIME, "datetime");
+        dialect.put(LOCAL_DATE, "datetime year to day");
+        dialect.put(LOCAL_TIME, "datetime hour to minute", "datetime hour to second", "datetime hour to fraction");
+        dialect.put(BYTES, "byte");
+        return dialect;
+    }
+
+    private static Dialect oracle(Dialect ansi) {
+        Dialect dialect = new Dialect("oracle", ansi);
+        dialect.setUpsert(UpsertStyle.MERGE, "dual", "");
+        dialect.setRowValueIn(true);
+        dialect.put(STRING, "varchar2", "nvarchar2", "long");
+        dialect.put(decimal(true), "number");
+        dialect.put("Float", "binary_float");
+        dialect.put("Double", "binary_double");
+        // Oracle 的 DATE 包含 時間
+        dialect.put(LOCAL_DATE_TIME, "date", "timestamp with local time zone");
+        dialect.put(BYTES, "raw", "long raw");
+        return dialect;
+    }
+
+    private static Dialect postgresql(Dialect ansi) {
+        Dialect dialect = new Dialect("postgresql", ansi);
+        dialect.setUpsert(UpsertStyle.ON_CONFLICT, null, "");
+        dialect.setLimit("", " LIMIT :limit");
+        dialect.setRowValueIn(true);
+        dialect.put(STRING, "bpchar", "json", "jsonb", "citext");
+        dialect.put("Short", "int2", "smallserial");
+        dialect.put("Integer", "int4", "serial");
+        dialect.put("Long", "int8", "bigserial");
+        dialect.put("Float", "float4");
+        dialect.put("Double", "float8");
+        dialect.put(BIG_DECIMAL, "money");
+        dialect.put("Boolean", "bool");
+        dialect.put(OFFSET_DATE_TIME, "timestamptz");
+        dialect.put(BYTES, "bytea");
+        dialect.put("java.util.UUID", "uuid");
+        return dialect;
+    }
+
+    private static Dialect mysql(Dialect ansi) {
+        Dialect dialect = new Dialect("mysql", ansi);
+        dialect.setUpsert(UpsertStyle.ON_DUPLICATE_KEY, null, "");
+        dialect.setLimit("", " LIMIT :limit");
+        dialect.setRowValueIn(true);
+        dialect.put(STRING, "tinytext", "mediumtext", "longtext", "enum", "set", "json");
+        JavaType booleanType = JavaType.of("Boolean");
+        JavaType byteType = JavaType.of("Byte");
+        // TINYINT(1) 慣例上 作為 布林值
+        dialect.put((precision, scale) -> precision == 1 ? booleanType : byteType, "tinyint");
+        dialect.put("Integer", "mediumint", "smallint unsigned", "mediumint unsigned");
+        dialect.put("Long", "int unsigned", "integer unsigned");
+        dialect.put("java.math.BigInteger", "bigint unsigned");
+        dialect.put("Float", "float");
+        dialect.put("Boolean", "bool", "bit");
+        dialect.put(LOCAL_DATE_TIME, "datetime");
+        dialect.put("Short", "year");
+        dialect.put(BYTES, "tinyblob", "mediumblob", "longblob");
+        return dialect;
+    }
+
+    private static Dialect sqlserver(Dialect ansi) {
+        Dialect dialect = new Dialect("sqlserver", ansi);
+        dialect.setUpsert(UpsertStyle.MERGE, "(SELECT 1 AS dummy)", ";");
+        dialect.setLimit("", " OFFSET 0 ROWS FETCH NEXT :limit ROWS ONLY");
+        dialect.put(STRING, "ntext", "xml");
+        dialect.put("Short", "tinyint");
+        dialect.put("Boolean", "bit");
+        dialect.put(BIG_DECIMAL, "money", "smallmoney");
+        dialect.put(LOCAL_DATE_TIME, "datetime", "datetime2", "smalldatetime");
+        dialect.put(OFFSET_DATE_TIME, "datetimeoffset");
+        dialect.put(BYTES, "image");
+        dialect.put("java.util.UUID", "uniqueidentifier");
+        return dialect;
+    }
+}
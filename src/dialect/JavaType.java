@@ -0,0 +1,42 @@
+package dialect;
+
+/**
+ * 欄位對應的 Java 類型
+ */
+public final class JavaType {
+    private final String qualifiedName;
+    private final String simpleName;
+
+    private JavaType(String qualifiedName) {
+        this.qualifiedName = qualifiedName;
+        this.simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @param qualifiedName 完整類別名稱 (如：java.math.BigDecimal)，java.lang 的類別 與 陣列 可省略 套件 (如：String、byte[])
+     * @return Java 類型
+     */
+    public static JavaType of(String qualifiedName) {
+        return new JavaType(qualifiedName.trim());
+    }
+
+    /** @return 完整類別名稱 (如：java.math.BigDecimal) */
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    /** @return 類別名稱 (如：BigDecimal) */
+    public String getSimpleName() {
+        return simpleName;
+    }
+
+    /** @return 是否需要 import，java.lang 與 未帶套件的類型 不需要 */
+    public boolean needsImport() {
+        return qualifiedName.indexOf('.') > 0 && !qualifiedName.startsWith("java.lang.");
+    }
+
+    @Override
+    public String toString() {
+        return qualifiedName;
+    }
+}
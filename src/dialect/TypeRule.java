@@ -0,0 +1,23 @@
+package dialect;
+
+/**
+ * 型別對應規則，依照 型別參數 決定 Java 類型 (如：DECIMAL(10,0) -> Long、DECIMAL(10,2) -> BigDecimal)
+ */
+@FunctionalInterface
+public interface TypeRule {
+    /**
+     * @param precision 第一個 型別參數 (長度 或 精度)，未指定 為 -1
+     * @param scale 第二個 型別參數 (小數位數)，未指定 為 -1
+     * @return Java 類型
+     */
+    JavaType resolve(int precision, int scale);
+
+    /**
+     * @param javaType 固定的 Java 類型
+     * @return 不看 型別參數 的規則
+     */
+    static TypeRule of(String javaType) {
+        JavaType type = JavaType.of(javaType);
+        return (precision, scale) -> type;
+    }
+}
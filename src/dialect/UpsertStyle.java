@@ -0,0 +1,13 @@
+package dialect;
+
+/**
+ * 新增或更新 (upsert) 的 SQL 語法
+ */
+public enum UpsertStyle {
+    /** MERGE INTO ... WHEN MATCHED ... WHEN NOT MATCHED (Informix、Oracle、SQL Server) */
+    MERGE,
+    /** INSERT ... ON CONFLICT (主鍵) DO UPDATE (PostgreSQL) */
+    ON_CONFLICT,
+    /** INSERT ... ON DUPLICATE KEY UPDATE (MySQL) */
+    ON_DUPLICATE_KEY
+}
@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Locale;
+
+import dialect.JavaType;
+
+import static utils.BasicUtil.capitalize;
+import static utils.BasicUtil.toCamelCase;
+
+/**
+ * 欄位定義，解析 table 時 計算一次，供 各個產生器 共用
+ */
+public final class ColumnModel {
+    private final String columnName;
+    private final String fieldName;
+    private final String capitalizedName;
+    private final String sqlType;
+    private final JavaType javaType;
+    private final String description;
+    private final boolean primaryKey;
+    private final boolean nullable;
+    private final int index;
+    private final boolean fixedLength;
+
+    /**
+     * @param columnName 資料庫欄位名稱 (如：client_id)
+     * @param sqlType 資料庫欄位型別 (如：CHAR(10)、DECIMAL(10,2))
+     * @param javaType 依 dialect 對應的 Java 類型
+     * @param description 欄位的中文註解，若無則為空字串
+     * @param primaryKey 是否為主鍵
+     * @param nullable 是否 可為 NULL (未宣告 NOT NULL，且 不是 指定的主鍵)
+     * @param index 欄位在 table 中的位置 (從 0 開始)
+     */
+    public ColumnModel(String columnName, String sqlType, JavaType javaType, String description, boolean primaryKey,
+                       boolean nullable, int index) {
+        this.columnName = columnName;
+        this.fieldName = toCamelCase(columnName, false);
+        this.capitalizedName = capitalize(fieldName);
+        this.sqlType = sqlType;
+        this.javaType = javaType;
+        this.description = description == null ? "" : description;
+        this.primaryKey = primaryKey;
+        this.nullable = nullable;
+        this.index = index;
+        this.fixedLength = isFixedLength(sqlType);
+    }
+
+    /**
+     * 是否為 固定長度的 字元型別 (CHAR、CHARACTER、NCHAR)，VARCHAR、CHAR VARYING 等 不算
+     */
+    private static boolean isFixedLength(String sqlType) {
+        String type = sqlType.trim().toLowerCase(Locale.ROOT);
+        int end = 0;
+        while (end < type.length() && Character.isLetter(type.charAt(end))) {
+            end++;
+        }
+        String baseType = type.substring(0, end);
+        return ("char".equals(baseType) || "character".equals(baseType) || "nchar".equals(baseType))
+                && !type.contains("varying");
+    }
+
+    /** @return 資料庫欄位名稱 (如：client_id) */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /** @return 駝峰式 欄位名稱 (如：clientId) */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /** @return 首字母大寫的 欄位名稱，用於 getter/setter (如：ClientId) */
+    public String getCapitalizedName() {
+        return capitalizedName;
+    }
+
+    /** @return 資料庫欄位型別 (如：CHAR(10)) */
+    public String getSqlType() {
+        return sqlType;
+    }
+
+    /** @return 對應的 Java 類型 (如：String、BigDecimal) */
+    public String getJavaType() {
+        return javaType.getSimpleName();
+    }
+
+    /** @return 對應的 Java 類型，含 套件名稱，用於 import */
+    public JavaType getType() {
+        return javaType;
+    }
+
+    /** @return 欄位的中文註解，若無則為空字串 */
+    public String getDescription() {
+        return description;
+    }
+
+    /** @return 是否為主鍵 */
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    /** @return 是否 可為 NULL */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /** @return 是否為 固定長度的 字元型別 (如：CHAR(10))，資料庫 會以 空白 補齊 */
+    public boolean isFixedLength() {
+        return fixedLength;
+    }
+
+    /** @return 欄位在 table 中的位置 (從 0 開始) */
+    public int getIndex() {
+        return index;
+    }
+}
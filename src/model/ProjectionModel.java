@@ -0,0 +1,33 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * projection 定義，table 的 部分欄位，產生 只含 這些欄位的 DTO 與 查詢 <br/>
+ * 欄位 一定包含 主鍵，分頁查詢 才能 以 最後一筆的主鍵 取得下一頁
+ */
+public final class ProjectionModel {
+    private final String name;
+    private final List<ColumnModel> columns;
+
+    /**
+     * @param name DTO 類別名稱 (如：ClntBrief)
+     * @param columns 欄位清單，主鍵 在前
+     */
+    public ProjectionModel(String name, List<ColumnModel> columns) {
+        this.name = name;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    }
+
+    /** @return DTO 類別名稱 (如：ClntBrief) */
+    public String getName() {
+        return name;
+    }
+
+    /** @return 欄位清單，主鍵 在前 */
+    public List<ColumnModel> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,131 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static utils.BasicUtil.toCamelCase;
+
+/**
+ * table 定義，解析 table 時 計算一次，供 各個產生器 共用
+ */
+public final class TableModel {
+    private final String tableName;
+    private final String entityName;
+    private final String entityVarName;
+    private final String description;
+    private final List<ColumnModel> columns;
+    private final ColumnModel[] primaryKeyColumns;
+    private final List<ColumnModel> primaryKeyList;
+    private final boolean primaryKeyExists;
+    private final boolean keysetPageable;
+    private final String keyType;
+    private final List<ProjectionModel> projections;
+
+    /**
+     * @param tableName 資料庫 table 名稱 (如：clnt)
+     * @param description table 的中文註解，若無則為空字串
+     * @param columns 欄位清單，依照 table 中的順序
+     * @param primaryKeyExists 主鍵是否存在；不存在時，所有欄位 皆視為 主鍵
+     */
+    public TableModel(String tableName, String description, List<ColumnModel> columns, boolean primaryKeyExists) {
+        this(tableName, description, columns, primaryKeyExists, Collections.emptyList());
+    }
+
+    /**
+     * @param tableName 資料庫 table 名稱 (如：clnt)
+     * @param description table 的中文註解，若無則為空字串
+     * @param columns 欄位清單，依照 table 中的順序
+     * @param primaryKeyExists 主鍵是否存在；不存在時，所有欄位 皆視為 主鍵
+     * @param projections projection 定義清單
+     */
+    public TableModel(String tableName, String description, List<ColumnModel> columns, boolean primaryKeyExists,
+                      List<ProjectionModel> projections) {
+        this.tableName = tableName;
+        this.entityName = toCamelCase(tableName, true);
+        this.entityVarName = entityName.toLowerCase();
+        this.description = description == null ? "" : description;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.primaryKeyColumns = columns.stream().filter(ColumnModel::isPrimaryKey).toArray(ColumnModel[]::new);
+        this.primaryKeyList = Collections.unmodifiableList(Arrays.asList(primaryKeyColumns));
+        this.primaryKeyExists = primaryKeyExists;
+        // keyset 分頁 以 主鍵 比較大小，NULL 無法比較，主鍵 含 可為 NULL 的欄位 時 會漏掉資料
+        this.keysetPageable = primaryKeyColumns.length > 0
+                && Arrays.stream(primaryKeyColumns).noneMatch(ColumnModel::isNullable);
+        this.projections = Collections.unmodifiableList(new ArrayList<>(projections));
+        // 檢查主鍵的型態
+        if (primaryKeyColumns.length > 1) {
+            this.keyType = entityName + "." + getKeyClassName();
+        } else if (primaryKeyColumns.length == 1) {
+            this.keyType = primaryKeyColumns[0].getJavaType();
+        } else {
+            this.keyType = "Integer";
+        }
+    }
+
+    /** @return 資料庫 table 名稱 (如：clnt) */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /** @return 實體名稱 (如：Clnt) */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /** @return 實體的變數名稱 (如：clnt) */
+    public String getEntityVarName() {
+        return entityVarName;
+    }
+
+    /** @return table 的中文註解，若無則為空字串 */
+    public String getDescription() {
+        return description;
+    }
+
+    /** @return 欄位清單，依照 table 中的順序 */
+    public List<ColumnModel> getColumns() {
+        return columns;
+    }
+
+    /** @return 主鍵欄位清單，依照 table 中的順序 */
+    public List<ColumnModel> getPrimaryKeys() {
+        return primaryKeyList;
+    }
+
+    /** @return 主鍵欄位數量 */
+    public int getPrimaryKeyCount() {
+        return primaryKeyColumns.length;
+    }
+
+    /** @return 主鍵是否存在；不存在時，所有欄位 皆視為 主鍵 */
+    public boolean isPrimaryKeyExists() {
+        return primaryKeyExists;
+    }
+
+    /** @return 是否 可以 依 主鍵 keyset 分頁，主鍵欄位 皆 不可為 NULL */
+    public boolean isKeysetPageable() {
+        return keysetPageable;
+    }
+
+    /** @return 是否為 複合主鍵 */
+    public boolean isCompositeKey() {
+        return primaryKeyColumns.length > 1;
+    }
+
+    /** @return 主鍵 內部類別名稱 (如：ClntKey) */
+    public String getKeyClassName() {
+        return entityName + "Key";
+    }
+
+    /** @return 主鍵的型態，複合主鍵 為 內部 Key 類 (如：Clnt.ClntKey) */
+    public String getKeyType() {
+        return keyType;
+    }
+
+    /** @return projection 定義清單，未定義時 為 空清單 */
+    public List<ProjectionModel> getProjections() {
+        return projections;
+    }
+}
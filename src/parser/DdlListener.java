@@ -0,0 +1,43 @@
+package parser;
+
+import java.util.List;
+
+/**
+ * DDL 解析事件，由 DdlParser 依照 schema 中出現的順序 依序通知
+ */
+public interface DdlListener {
+    /**
+     * 開始一個 CREATE TABLE
+     * @param tableName table 名稱 (不含 擁有者 與 引號)
+     * @param description table 的中文註解，若無則為空字串
+     */
+    void onTable(String tableName, String description);
+
+    /**
+     * 解析出 一個欄位
+     * @param columnName 欄位名稱
+     * @param sqlType 欄位型別，含 長度 與 修飾詞 (如：DECIMAL(10,2)、DATETIME YEAR TO SECOND)
+     * @param nullable 是否允許 null
+     * @param description 欄位的中文註解，若無則為空字串
+     */
+    void onColumn(String columnName, String sqlType, boolean nullable, String description);
+
+    /**
+     * 解析出 主鍵條件約束，來源可能是 CREATE TABLE 或 之後的 ALTER TABLE
+     * @param tableName table 名稱
+     * @param columns 主鍵欄位，依照 定義順序
+     */
+    void onPrimaryKey(String tableName, List<String> columns);
+
+    /**
+     * 解析出 唯一條件約束 或 唯一索引，來源可能是 CREATE TABLE、ALTER TABLE 或 CREATE UNIQUE INDEX
+     * @param tableName table 名稱
+     * @param columns 唯一鍵欄位，依照 定義順序
+     */
+    void onUniqueKey(String tableName, List<String> columns);
+
+    /**
+     * schema 解析完畢
+     */
+    void onEnd();
+}
@@ -0,0 +1,465 @@
+package parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static parser.SqlTokenizer.*;
+
+/**
+ * 串流式 DDL 解析器，單次掃描 schema 並 透過 DdlListener 通知解析結果 <br/>
+ * 只保留 目前欄位 的資料，記憶體用量 與 schema 大小無關
+ */
+public class DdlParser {
+    private final SqlTokenizer tokenizer;
+    private final DdlListener listener;
+
+    /**
+     * @param reader schema 來源，由呼叫端 負責關閉
+     * @param listener 解析事件的接收者
+     */
+    public DdlParser(Reader reader, DdlListener listener) {
+        this.tokenizer = new SqlTokenizer(reader);
+        this.listener = listener;
+    }
+
+    /**
+     * 解析 整份 schema，只處理 CREATE TABLE、CREATE UNIQUE INDEX 與 ALTER TABLE，其他語句 直接略過
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    public void parse() throws IOException {
+        int type;
+        while ((type = tokenizer.next()) != EOF) {
+            if (type != WORD) {
+                continue;
+            }
+            if (tokenizer.isWord("CREATE")) {
+                parseCreate();
+            } else if (tokenizer.isWord("ALTER")) {
+                parseAlter();
+            }
+        }
+        listener.onEnd();
+    }
+
+    /**
+     * CREATE [TEMP | RAW | ...] TABLE [IF NOT EXISTS] name ( ... ) 或 CREATE UNIQUE INDEX
+     */
+    private void parseCreate() throws IOException {
+        // TABLE 前 最多允許 兩個修飾詞，如 GLOBAL TEMPORARY
+        for (int i = 0; i < 3; i++) {
+            if (tokenizer.next() != WORD) {
+                tokenizer.pushBack();
+                return;
+            }
+            if (tokenizer.isWord("TABLE")) {
+                parseTable();
+                return;
+            }
+            if (tokenizer.isWord("UNIQUE") || tokenizer.isWord("DISTINCT")) {
+                parseUniqueIndex();
+                return;
+            }
+        }
+    }
+
+    /**
+     * CREATE UNIQUE [CLUSTER | CLUSTERED | NONCLUSTERED] INDEX name ON [擁有者.]table [USING x] (cols) ... <br/>
+     * Informix 的 DISTINCT 等同 UNIQUE
+     */
+    private void parseUniqueIndex() throws IOException {
+        int type;
+        while ((type = tokenizer.next()) != EOF && !tokenizer.isSymbol(';')) {
+            if (type != WORD) {
+                continue;
+            }
+            if (tokenizer.isWord("CREATE") || tokenizer.isWord("ALTER")) {
+                // 未以分號結尾，交由 下一個語句 處理
+                tokenizer.pushBack();
+                return;
+            }
+            if (tokenizer.isWord("ON")) {
+                if (tokenizer.next() != WORD) {
+                    tokenizer.pushBack();
+                    return;
+                }
+                String tableName = readQualifiedName();
+                skipWords(2);
+                listener.onUniqueKey(tableName, readColumnList());
+                return;
+            }
+        }
+    }
+
+    private void parseTable() throws IOException {
+        int nameLine = 0;
+        String tableName = null;
+        String description = "";
+        int type;
+        while ((type = tokenizer.next()) != EOF && !tokenizer.isSymbol('(')) {
+            if (type == WORD && !isIfNotExists()) {
+                tableName = tokenizer.text();
+                nameLine = tokenizer.line();
+            } else if (type == COMMENT && tokenizer.line() == nameLine) {
+                description = tokenizer.text();
+            }
+        }
+        if (tableName == null || type == EOF) {
+            return;
+        }
+        // 與 table 名稱 或 左括號 同一行的註解，視為 table 的中文註解
+        int openLine = tokenizer.line();
+        while (tokenizer.next() == COMMENT) {
+            if (tokenizer.line() == openLine || tokenizer.line() == nameLine) {
+                description = tokenizer.text();
+            }
+        }
+        tokenizer.pushBack();
+        listener.onTable(tableName, description);
+
+        // 逐一解析 以逗號分隔的 欄位 或 條件約束，直到 右括號
+        boolean more = true;
+        while (more) {
+            type = tokenizer.next();
+            if (type == EOF || tokenizer.isSymbol(')')) {
+                return;
+            }
+            if (type == COMMENT || tokenizer.isSymbol(',')) {
+                continue;
+            }
+            if (tokenizer.isWord("PRIMARY")) {
+                readKeyword("KEY");
+                listener.onPrimaryKey(tableName, readColumnList());
+                more = skipElement();
+            } else if (tokenizer.isWord("UNIQUE")) {
+                // UNIQUE [KEY | INDEX] [名稱] (cols)
+                skipWords(2);
+                listener.onUniqueKey(tableName, readColumnList());
+                more = skipElement();
+            } else if (tokenizer.isWord("CONSTRAINT") || tokenizer.isWord("FOREIGN")) {
+                if (tokenizer.isWord("CONSTRAINT")) {
+                    tokenizer.next(); // 條件約束名稱
+                    if (tokenizer.next() == WORD && tokenizer.isWord("PRIMARY")) {
+                        readKeyword("KEY");
+                        listener.onPrimaryKey(tableName, readColumnList());
+                    } else if (tokenizer.isWord("UNIQUE")) {
+                        skipWords(2);
+                        listener.onUniqueKey(tableName, readColumnList());
+                    } else {
+                        tokenizer.pushBack();
+                    }
+                }
+                more = skipElement();
+            } else if (tokenizer.isWord("CHECK") || tokenizer.isWord("INDEX") || tokenizer.isWord("KEY")) {
+                more = parseKeywordElement(tableName);
+            } else if (type == WORD) {
+                more = parseColumn(tableName);
+            }
+        }
+    }
+
+    /**
+     * 解析 單一欄位：name type [(args)] [修飾詞] [NOT NULL] [DEFAULT x] [PRIMARY KEY | UNIQUE] ... [-- 註解]
+     * @return 是否還有下一個元素 (false 代表 已讀到 右括號)
+     */
+    private boolean parseColumn(String tableName) throws IOException {
+        return parseColumn(tableName, tokenizer.text(), tokenizer.line(), new StringBuilder());
+    }
+
+    /**
+     * 解析 單一欄位 的其餘部分，欄位名稱 與 部分型別 已讀取
+     * @param sqlType 已讀取的型別，如 CHAR(10)
+     * @return 是否還有下一個元素 (false 代表 已讀到 右括號)
+     */
+    private boolean parseColumn(String tableName, String columnName, int lastLine, StringBuilder sqlType) throws IOException {
+        String description = "";
+        boolean nullable = true;
+        boolean typeDone = false;
+        boolean more = true;
+
+        int type;
+        while (true) {
+            type = tokenizer.next();
+            if (type == EOF) {
+                more = false;
+                break;
+            }
+            if (type == COMMENT) {
+                if (tokenizer.line() == lastLine) {
+                    description = tokenizer.text();
+                }
+                continue;
+            }
+            if (tokenizer.isSymbol(',')) {
+                break;
+            }
+            if (tokenizer.isSymbol(')')) {
+                more = false;
+                break;
+            }
+            lastLine = tokenizer.line();
+            if (type == WORD && isConstraintKeyword()) {
+                typeDone = true;
+                if (tokenizer.isWord("NOT")) {
+                    readKeyword("NULL");
+                    nullable = false;
+                } else if (tokenizer.isWord("PRIMARY")) {
+                    readKeyword("KEY");
+                    List<String> columns = new ArrayList<>(1);
+                    columns.add(columnName);
+                    listener.onPrimaryKey(tableName, columns);
+                } else if (tokenizer.isWord("UNIQUE")) {
+                    listener.onUniqueKey(tableName, Collections.singletonList(columnName));
+                } else if (tokenizer.isWord("COMMENT")) {
+                    // MySQL 的 欄位註解
+                    if (tokenizer.next() == STRING && description.isEmpty()) {
+                        description = tokenizer.text();
+                    }
+                }
+            } else if (tokenizer.isSymbol('(')) {
+                if (typeDone) {
+                    skipParentheses();
+                } else {
+                    readTypeArguments(sqlType);
+                }
+                lastLine = tokenizer.line();
+            } else if (!typeDone && type == WORD) {
+                if (sqlType.length() > 0) {
+                    sqlType.append(' ');
+                }
+                sqlType.append(tokenizer.text());
+            }
+        }
+
+        // 逗號 之後、同一行的註解，屬於 此欄位
+        if (more) {
+            if (tokenizer.next() == COMMENT && tokenizer.line() == lastLine) {
+                description = tokenizer.text();
+            } else {
+                tokenizer.pushBack();
+            }
+        }
+        listener.onColumn(columnName, sqlType.toString(), nullable, description);
+        return more;
+    }
+
+    /**
+     * ALTER TABLE [ONLY] name ADD [CONSTRAINT [name]] PRIMARY KEY | UNIQUE (cols) ... ，只處理 主鍵 與 唯一條件約束
+     */
+    private void parseAlter() throws IOException {
+        if (tokenizer.next() != WORD || !tokenizer.isWord("TABLE")) {
+            tokenizer.pushBack();
+            return;
+        }
+        if (tokenizer.next() != WORD) {
+            tokenizer.pushBack();
+            return;
+        }
+        if (tokenizer.isWord("ONLY")) {
+            tokenizer.next();
+        }
+        String tableName = readQualifiedName();
+
+        int type;
+        while ((type = tokenizer.next()) != EOF && !tokenizer.isSymbol(';')) {
+            if (type != WORD) {
+                continue;
+            }
+            if (tokenizer.isWord("CREATE") || tokenizer.isWord("ALTER")) {
+                // 未以分號結尾，交由 下一個語句 處理
+                tokenizer.pushBack();
+                return;
+            }
+            if (tokenizer.isWord("PRIMARY")) {
+                readKeyword("KEY");
+                listener.onPrimaryKey(tableName, readColumnList());
+            } else if (tokenizer.isWord("UNIQUE")) {
+                skipWords(2);
+                listener.onUniqueKey(tableName, readColumnList());
+            }
+        }
+    }
+
+    /**
+     * 讀取 擁有者.table 或 資料庫:擁有者.table 格式的名稱，保留最後一段 (第一段 已讀取)
+     */
+    private String readQualifiedName() throws IOException {
+        String name = tokenizer.text();
+        while (tokenizer.next() == SYMBOL && (tokenizer.isSymbol('.') || tokenizer.isSymbol(':'))) {
+            if (tokenizer.next() == WORD) {
+                name = tokenizer.text();
+            }
+        }
+        tokenizer.pushBack();
+        return name;
+    }
+
+    /**
+     * 讀取 (a, b, c) 欄位清單，每個元素 只取 第一個字，略過 ASC、DESC 與 長度 (如：MySQL 的 name(10))
+     */
+    private List<String> readColumnList() throws IOException {
+        List<String> columns = new ArrayList<>();
+        if (tokenizer.next() != SYMBOL || !tokenizer.isSymbol('(')) {
+            tokenizer.pushBack();
+            return columns;
+        }
+        boolean first = true;
+        int type;
+        while ((type = tokenizer.next()) != EOF && !tokenizer.isSymbol(')')) {
+            if (tokenizer.isSymbol(',')) {
+                first = true;
+            } else if (tokenizer.isSymbol('(')) {
+                skipParentheses();
+            } else if (type == WORD && first) {
+                columns.add(tokenizer.text());
+                first = false;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 略過 最多 max 個字 (如：UNIQUE KEY 名稱 (cols) 的 KEY 名稱)，下一個 token 退回
+     */
+    private void skipWords(int max) throws IOException {
+        for (int i = 0; i <= max; i++) {
+            if (tokenizer.next() != WORD || i == max) {
+                tokenizer.pushBack();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 讀取 型別參數，如 (10,2)，並附加到 型別文字
+     */
+    private void readTypeArguments(StringBuilder sqlType) throws IOException {
+        sqlType.append('(');
+        readTypeArgumentsRest(sqlType);
+    }
+
+    /**
+     * 讀取 型別參數 直到 右括號 (左括號 已讀取並附加)
+     */
+    private void readTypeArgumentsRest(StringBuilder sqlType) throws IOException {
+        int type;
+        while ((type = tokenizer.next()) != EOF && !tokenizer.isSymbol(')')) {
+            if (type == WORD || tokenizer.isSymbol(',')) {
+                sqlType.append(tokenizer.text());
+            }
+        }
+        sqlType.append(')');
+    }
+
+    /**
+     * 解析 以 KEY、INDEX 或 CHECK 開頭的元素，這些字 也可能是 欄位名稱 <br/>
+     * 接著 左括號，或 名稱 [USING x] 再接 索引欄位清單 者 為 條件約束，如 KEY idx_name (col)；
+     * 其他 為 欄位，如 key CHAR(10)、index INT NOT NULL
+     * @return 是否還有下一個元素 (false 代表 已讀到 右括號)
+     */
+    private boolean parseKeywordElement(String tableName) throws IOException {
+        String firstWord = tokenizer.text();
+        int firstLine = tokenizer.line();
+        if (nextSignificant() != WORD) {
+            // KEY (cols)、CHECK (expr)，或 欄位 缺少型別
+            tokenizer.pushBack();
+            return tokenizer.isSymbol('(') ? skipElement() : parseColumn(tableName, firstWord, firstLine, new StringBuilder());
+        }
+        StringBuilder sqlType = new StringBuilder(tokenizer.text());
+        int typeLine = tokenizer.line();
+        int type = nextSignificant();
+        if (type == WORD && tokenizer.isWord("USING")) {
+            return skipElement();
+        }
+        if (!tokenizer.isSymbol('(')) {
+            tokenizer.pushBack();
+            return parseColumn(tableName, firstWord, typeLine, sqlType);
+        }
+        // 名稱 後的括號：索引欄位清單 以 欄位名稱 開頭，型別參數 以 數字 或 字串 開頭
+        type = nextSignificant();
+        if (type == WORD && !Character.isDigit(tokenizer.text().charAt(0))) {
+            skipParentheses();
+            return skipElement();
+        }
+        sqlType.append('(');
+        if (tokenizer.isSymbol(')')) {
+            sqlType.append(')');
+        } else {
+            if (type == WORD) {
+                sqlType.append(tokenizer.text());
+            }
+            readTypeArgumentsRest(sqlType);
+        }
+        return parseColumn(tableName, firstWord, tokenizer.line(), sqlType);
+    }
+
+    /**
+     * 讀取下一個 非註解 的 token
+     * @return token 類型
+     */
+    private int nextSignificant() throws IOException {
+        int type;
+        while ((type = tokenizer.next()) == COMMENT) {
+            // 略過 元素中間的註解
+        }
+        return type;
+    }
+
+    /**
+     * 略過 目前元素 直到 同層的逗號 或 右括號
+     * @return 是否還有下一個元素 (false 代表 已讀到 右括號)
+     */
+    private boolean skipElement() throws IOException {
+        int type;
+        while ((type = tokenizer.next()) != EOF) {
+            if (tokenizer.isSymbol('(')) {
+                skipParentheses();
+            } else if (tokenizer.isSymbol(',')) {
+                return true;
+            } else if (tokenizer.isSymbol(')')) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 略過 成對的括號內容 (左括號 已讀取)
+     */
+    private void skipParentheses() throws IOException {
+        int depth = 1;
+        while (depth > 0 && tokenizer.next() != EOF) {
+            if (tokenizer.isSymbol('(')) {
+                depth++;
+            } else if (tokenizer.isSymbol(')')) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 讀取 預期的關鍵字，不相符時 退回
+     */
+    private void readKeyword(String keyword) throws IOException {
+        if (tokenizer.next() != WORD || !tokenizer.isWord(keyword)) {
+            tokenizer.pushBack();
+        }
+    }
+
+    private boolean isIfNotExists() {
+        return tokenizer.isWord("IF") || tokenizer.isWord("NOT") || tokenizer.isWord("EXISTS");
+    }
+
+    /**
+     * 判斷 目前 token 是否為 欄位條件約束的開頭，型別 到此結束
+     */
+    private boolean isConstraintKeyword() {
+        return tokenizer.isWord("NOT") || tokenizer.isWord("NULL") || tokenizer.isWord("DEFAULT")
+                || tokenizer.isWord("PRIMARY") || tokenizer.isWord("UNIQUE") || tokenizer.isWord("REFERENCES")
+                || tokenizer.isWord("CHECK") || tokenizer.isWord("CONSTRAINT") || tokenizer.isWord("COLLATE")
+                || tokenizer.isWord("GENERATED") || tokenizer.isWord("AUTO_INCREMENT") || tokenizer.isWord("IDENTITY")
+                || tokenizer.isWord("COMMENT");
+    }
+}
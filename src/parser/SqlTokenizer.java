@@ -0,0 +1,235 @@
+package parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * SQL 斷詞器，以字元為單位 串流讀取，不會一次載入整份檔案 <br/>
+ * 支援 -- 單行註解、/* *&#47; 區塊註解、Informix 的 { } 註解，
+ * 以及 "x"、`x`、[x] 引號識別字
+ */
+public class SqlTokenizer {
+    /** 檔案結尾 */
+    public static final int EOF = -1;
+    /** 識別字、關鍵字 或 數字 */
+    public static final int WORD = 1;
+    /** 單引號 字串 */
+    public static final int STRING = 2;
+    /** 註解 (不含 註解符號) */
+    public static final int COMMENT = 3;
+    /** 單一符號，如 ( ) , ; . */
+    public static final int SYMBOL = 4;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    /** 目前 token 的文字，重複使用 避免 每個 token 建立新物件 */
+    private final StringBuilder text = new StringBuilder(64);
+    private int type;
+    private int tokenLine;
+    private int line = 1;
+    private boolean pushedBack;
+
+    /**
+     * @param reader 來源，由呼叫端 負責關閉
+     */
+    public SqlTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 讀取下一個 token
+     * @return token 類型
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    public int next() throws IOException {
+        if (pushedBack) {
+            pushedBack = false;
+            return type;
+        }
+        text.setLength(0);
+        int c = read();
+        while (c != EOF && Character.isWhitespace(c)) {
+            c = read();
+        }
+        tokenLine = line;
+        if (c == EOF) {
+            return type = EOF;
+        }
+        if (c == '-' && peek() == '-') {
+            read();
+            readLineComment();
+            return type = COMMENT;
+        }
+        if (c == '/' && peek() == '*') {
+            read();
+            readBlockComment();
+            return type = COMMENT;
+        }
+        if (c == '{') {
+            readUntil('}');
+            trimText();
+            return type = COMMENT;
+        }
+        if (c == '\'') {
+            readString();
+            return type = STRING;
+        }
+        if (c == '"' || c == '`') {
+            readUntil(c);
+            return type = WORD;
+        }
+        if (c == '[') {
+            readUntil(']');
+            return type = WORD;
+        }
+        if (isWordChar(c)) {
+            text.append((char) c);
+            while (isWordChar(peek())) {
+                text.append((char) read());
+            }
+            return type = WORD;
+        }
+        text.append((char) c);
+        return type = SYMBOL;
+    }
+
+    /**
+     * 退回 目前的 token，下次呼叫 next() 時 再次取得
+     */
+    public void pushBack() {
+        pushedBack = true;
+    }
+
+    /** @return 目前 token 的類型 */
+    public int type() {
+        return type;
+    }
+
+    /** @return 目前 token 的文字 */
+    public String text() {
+        return text.toString();
+    }
+
+    /** @return 目前 token 開始的行號 (從 1 開始) */
+    public int line() {
+        return tokenLine;
+    }
+
+    /**
+     * 判斷 目前 token 是否為 指定的關鍵字 (不分大小寫)，不會建立新字串
+     * @param keyword 關鍵字
+     * @return 是否相符
+     */
+    public boolean isWord(String keyword) {
+        if (type != WORD || text.length() != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toUpperCase(text.charAt(i)) != Character.toUpperCase(keyword.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判斷 目前 token 是否為 指定的符號
+     * @param symbol 符號
+     * @return 是否相符
+     */
+    public boolean isSymbol(char symbol) {
+        return type == SYMBOL && text.charAt(0) == symbol;
+    }
+
+    private void readLineComment() throws IOException {
+        while (peek() == '-') {
+            read();
+        }
+        int c;
+        while ((c = peek()) != EOF && c != '\n' && c != '\r') {
+            text.append((char) read());
+        }
+        trimText();
+    }
+
+    private void readBlockComment() throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '*' && peek() == '/') {
+                read();
+                break;
+            }
+            text.append((char) c);
+        }
+        trimText();
+    }
+
+    private void readString() throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '\'') {
+                // '' 為 跳脫的單引號
+                if (peek() != '\'') {
+                    break;
+                }
+                read();
+            }
+            text.append((char) c);
+        }
+    }
+
+    private void readUntil(int end) throws IOException {
+        int c;
+        while ((c = read()) != EOF && c != end) {
+            text.append((char) c);
+        }
+    }
+
+    private void trimText() {
+        int start = 0;
+        while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        text.delete(0, start);
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        text.setLength(end);
+    }
+
+    private static boolean isWordChar(int c) {
+        return c != EOF && (Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#');
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
@@ -0,0 +1,373 @@
+package template;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 編譯後的 template，由 文字、變數、區塊 組成的指令樹，可重複 平行渲染 <br/>
+ * 語法：
+ * <ul>
+ *     <li>{{name}}、{{a.b}}：輸出變數</li>
+ *     <li>{{#if name}} ... {{else}} ... {{/if}}：條件成立時輸出</li>
+ *     <li>{{#unless name}} ... {{/unless}}：條件不成立時輸出</li>
+ *     <li>{{#each list}} ... {{/each}}：逐筆輸出，可使用 @first、@last、@index</li>
+ *     <li>{{> name}}：引用 其他 template</li>
+ *     <li>{{! 註解 }}：不輸出</li>
+ * </ul>
+ * 單獨一行的 區塊標籤 不會輸出 該行的空白與換行 <br/>
+ * 條件判斷：false、null、空字串、空集合 視為 不成立
+ */
+public final class Template {
+    private final String name;
+    private final Node[] nodes;
+
+    private Template(String name, Node[] nodes) {
+        this.name = name;
+        this.nodes = nodes;
+    }
+
+    /** @return template 名稱 */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 渲染 template
+     * @param out 輸出位置
+     * @param context 變數
+     * @param engine 用於 取得 引用的 template
+     */
+    void render(StringBuilder out, Map<String, ?> context, TemplateEngine engine) {
+        renderNodes(nodes, out, new Scope(context, null), engine);
+    }
+
+    private static void renderNodes(Node[] nodes, StringBuilder out, Scope scope, TemplateEngine engine) {
+        for (Node node : nodes) {
+            node.render(out, scope, engine);
+        }
+    }
+
+    /**
+     * 編譯 template
+     * @param name template 名稱，用於 錯誤訊息
+     * @param source template 內容
+     * @return 編譯後的 template
+     */
+    public static Template compile(String name, String source) {
+        Parser parser = new Parser(name, source);
+        return new Template(name, parser.parse());
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // 變數範圍
+
+    /**
+     * 變數範圍，{{#each}} 每一筆 建立一層，查詢時 由內往外
+     */
+    private static final class Scope {
+        private final Map<String, ?> values;
+        private final Scope parent;
+        private int index;
+        private int size;
+
+        private Scope(Map<String, ?> values, Scope parent) {
+            this.values = values;
+            this.parent = parent;
+        }
+
+        private Object lookup(String[] path) {
+            String first = path[0];
+            Object value = null;
+            if (first.charAt(0) == '@') {
+                value = loopValue(first);
+            } else {
+                for (Scope scope = this; scope != null; scope = scope.parent) {
+                    if (scope.values.containsKey(first)) {
+                        value = scope.values.get(first);
+                        break;
+                    }
+                }
+            }
+            for (int i = 1; i < path.length && value != null; i++) {
+                value = value instanceof Map ? ((Map<?, ?>) value).get(path[i]) : null;
+            }
+            return value;
+        }
+
+        private Object loopValue(String name) {
+            switch (name) {
+                case "@first":
+                    return index == 0;
+                case "@last":
+                    return index == size - 1;
+                case "@index":
+                    return index;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // 指令
+
+    private interface Node {
+        void render(StringBuilder out, Scope scope, TemplateEngine engine);
+    }
+
+    private static final class TextNode implements Node {
+        private final String text;
+
+        private TextNode(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(StringBuilder out, Scope scope, TemplateEngine engine) {
+            out.append(text);
+        }
+    }
+
+    private static final class VariableNode implements Node {
+        private final String[] path;
+
+        private VariableNode(String path) {
+            this.path = path.split("\\.");
+        }
+
+        @Override
+        public void render(StringBuilder out, Scope scope, TemplateEngine engine) {
+            Object value = scope.lookup(path);
+            if (value instanceof CharSequence) {
+                out.append((CharSequence) value);
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+    }
+
+    private static final class ConditionNode implements Node {
+        private final String[] path;
+        private final boolean negate;
+        private final Node[] then;
+        private final Node[] otherwise;
+
+        private ConditionNode(String path, boolean negate, Node[] then, Node[] otherwise) {
+            this.path = path.split("\\.");
+            this.negate = negate;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(StringBuilder out, Scope scope, TemplateEngine engine) {
+            boolean truthy = isTruthy(scope.lookup(path)) != negate;
+            renderNodes(truthy ? then : otherwise, out, scope, engine);
+        }
+    }
+
+    private static final class EachNode implements Node {
+        private final String[] path;
+        private final Node[] body;
+        private final Node[] otherwise;
+
+        private EachNode(String path, Node[] body, Node[] otherwise) {
+            this.path = path.split("\\.");
+            this.body = body;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(StringBuilder out, Scope scope, TemplateEngine engine) {
+            Object value = scope.lookup(path);
+            if (!(value instanceof List) || ((List<?>) value).isEmpty()) {
+                renderNodes(otherwise, out, scope, engine);
+                return;
+            }
+            List<?> items = (List<?>) value;
+            for (int i = 0; i < items.size(); i++) {
+                Object item = items.get(i);
+                @SuppressWarnings("unchecked")
+                Map<String, ?> values = item instanceof Map ? (Map<String, ?>) item : Collections.singletonMap("this", item);
+                Scope itemScope = new Scope(values, scope);
+                itemScope.index = i;
+                itemScope.size = items.size();
+                renderNodes(body, out, itemScope, engine);
+            }
+        }
+    }
+
+    private static final class PartialNode implements Node {
+        private final String name;
+
+        private PartialNode(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(StringBuilder out, Scope scope, TemplateEngine engine) {
+            renderNodes(engine.getTemplate(name).nodes, out, scope, engine);
+        }
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // 編譯
+
+    private static final class Parser {
+        private final String name;
+        private final String source;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        private Parser(String name, String source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        private Node[] parse() {
+            tokenize();
+            Node[] nodes = parseBlock(null);
+            if (position < tokens.size()) {
+                throw error("多餘的結束標籤 " + tokens.get(position));
+            }
+            return nodes;
+        }
+
+        /**
+         * 切割為 文字 與 標籤，單獨一行的 區塊標籤 去除 該行的空白與換行
+         */
+        private void tokenize() {
+            int lineStart = 0;
+            while (lineStart < source.length()) {
+                int lineEnd = source.indexOf('\n', lineStart);
+                lineEnd = lineEnd < 0 ? source.length() : lineEnd + 1;
+                String line = source.substring(lineStart, lineEnd);
+                String trimmed = line.trim();
+                if (trimmed.startsWith("{{") && trimmed.endsWith("}}") && trimmed.indexOf("{{", 2) < 0
+                        && isStandaloneTag(trimmed.substring(2, trimmed.length() - 2).trim())) {
+                    tokens.add(trimmed);
+                } else {
+                    tokenizeLine(line);
+                }
+                lineStart = lineEnd;
+            }
+        }
+
+        private void tokenizeLine(String line) {
+            int start = 0;
+            while (start < line.length()) {
+                int open = line.indexOf("{{", start);
+                if (open < 0) {
+                    tokens.add(line.substring(start));
+                    return;
+                }
+                int close = line.indexOf("}}", open);
+                if (close < 0) {
+                    throw error("標籤 未結束：" + line.trim());
+                }
+                if (open > start) {
+                    tokens.add(line.substring(start, open));
+                }
+                tokens.add(line.substring(open, close + 2));
+                start = close + 2;
+            }
+        }
+
+        private static boolean isStandaloneTag(String tag) {
+            return tag.startsWith("#") || tag.startsWith("/") || tag.startsWith("!") || tag.startsWith(">")
+                    || tag.equals("else");
+        }
+
+        /**
+         * 解析 區塊內容 直到 結束標籤 或 {{else}}
+         * @param block 所在區塊 (if、unless、each)，最外層 為 null
+         */
+        private Node[] parseBlock(String block) {
+            List<Node> nodes = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            while (position < tokens.size()) {
+                String token = tokens.get(position);
+                if (!token.startsWith("{{")) {
+                    text.append(token);
+                    position++;
+                    continue;
+                }
+                String tag = token.substring(2, token.length() - 2).trim();
+                if (tag.startsWith("/") || tag.equals("else")) {
+                    if (block == null) {
+                        throw error("多餘的標籤 {{" + tag + "}}");
+                    }
+                    break;
+                }
+                position++;
+                if (text.length() > 0) {
+                    nodes.add(new TextNode(text.toString()));
+                    text.setLength(0);
+                }
+                if (tag.startsWith("!")) {
+                    continue;
+                } else if (tag.startsWith(">")) {
+                    nodes.add(new PartialNode(tag.substring(1).trim()));
+                } else if (tag.startsWith("#")) {
+                    nodes.add(parseSection(tag.substring(1).trim()));
+                } else {
+                    nodes.add(new VariableNode(tag));
+                }
+            }
+            if (text.length() > 0) {
+                nodes.add(new TextNode(text.toString()));
+            }
+            return nodes.toArray(new Node[0]);
+        }
+
+        private Node parseSection(String tag) {
+            int space = tag.indexOf(' ');
+            if (space < 0) {
+                throw error("區塊標籤 缺少變數名稱：{{#" + tag + "}}");
+            }
+            String kind = tag.substring(0, space);
+            String path = tag.substring(space + 1).trim();
+            if (!kind.equals("if") && !kind.equals("unless") && !kind.equals("each")) {
+                throw error("無法識別的區塊標籤：{{#" + tag + "}}");
+            }
+            Node[] body = parseBlock(kind);
+            Node[] otherwise = new Node[0];
+            if (position < tokens.size() && tokens.get(position).matches("\\{\\{\\s*else\\s*}}")) {
+                position++;
+                otherwise = parseBlock(kind);
+            }
+            String end = position < tokens.size() ? tokens.get(position) : "";
+            if (!end.replaceAll("\\s", "").equals("{{/" + kind + "}}")) {
+                throw error("{{#" + tag + "}} 缺少 {{/" + kind + "}}");
+            }
+            position++;
+            if (kind.equals("each")) {
+                return new EachNode(path, body, otherwise);
+            }
+            return new ConditionNode(path, kind.equals("unless"), body, otherwise);
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("template " + name + " 錯誤：" + message);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package template;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * template 的 載入、編譯 與 渲染 <br/>
+ * 每個 template 只編譯一次，每個執行緒 重複使用 同一個 StringBuilder 渲染 <br/>
+ * 可指定 多個資料夾，依序 尋找 template，前面的資料夾 覆寫 後面的 同名 template
+ */
+public class TemplateEngine {
+    /** template 副檔名 */
+    public static final String EXTENSION = ".tpl";
+
+    private final File[] directories;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
+    /**
+     * @param directories template 所在資料夾，依序 尋找
+     */
+    public TemplateEngine(File... directories) {
+        this.directories = directories.clone();
+    }
+
+    /**
+     * 渲染 template
+     * @param name template 名稱 (不含副檔名，如：entity)
+     * @param context 變數
+     * @return 渲染結果
+     */
+    public String render(String name, Map<String, ?> context) {
+        StringBuilder out = buffers.get();
+        out.setLength(0);
+        getTemplate(name).render(out, context, this);
+        return out.toString();
+    }
+
+    /**
+     * 取得 編譯後的 template，第一次使用時 讀取並編譯
+     * @param name template 名稱 (不含副檔名，如：entity)
+     * @return 編譯後的 template
+     */
+    public Template getTemplate(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            template = templates.computeIfAbsent(name, key -> Template.compile(key, readSource(key)));
+        }
+        return template;
+    }
+
+    /**
+     * 所有 template 內容的摘要，template 修改時 所有 table 都需重新生成
+     * @return SHA-256 雜湊 (16 進位)
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    public String fingerprint() throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (File directory : directories) {
+                File[] files = directory.listFiles((dir, fileName) -> fileName.endsWith(EXTENSION));
+                if (files != null) {
+                    Arrays.sort(files);
+                    for (File file : files) {
+                        digest.update(file.getName().getBytes(StandardCharsets.UTF_8));
+                        digest.update(Files.readAllBytes(file.toPath()));
+                    }
+                }
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String readSource(String name) {
+        File file = null;
+        for (File directory : directories) {
+            file = new File(directory, name + EXTENSION);
+            if (file.isFile()) {
+                break;
+            }
+        }
+        try {
+            // 統一使用 \n 換行，產出內容 不受 template 檔案的換行格式 影響
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("讀取 template 失敗：" + file.getPath(), e);
+        }
+    }
+}
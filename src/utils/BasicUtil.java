@@ -1,9 +1,13 @@
 package utils;
 
+import dialect.Dialect;
+import dialect.Dialects;
+
 /**
  * 設定共用方法
  */
 public class BasicUtil {
+    private static final Dialect DEFAULT_DIALECT = Dialects.get(Dialects.DEFAULT);
 
     /**
      * 將字串轉換為駝峰式命名規範（Camel Case）
@@ -36,25 +40,39 @@ public class BasicUtil {
     }
 
     /**
-     * 根據資料庫欄位型別對應 Java 類型
+     * 將 駝峰式 名稱 轉為 常數名稱（如：ClntBrief -> CLNT_BRIEF）
+     * @param name 駝峰式 名稱
+     * @return 大寫 以 底線 分隔的 名稱
+     */
+    public static String toConstantName(String name) {
+        StringBuilder constant = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && name.charAt(i - 1) != '_') {
+                constant.append('_');
+            }
+            constant.append(Character.toUpperCase(c));
+        }
+        return constant.toString();
+    }
+
+    /**
+     * 根據資料庫欄位型別對應 Java 類型，使用 預設方言 (Informix) <br/>
+     * 產生器 依 設定的 dialect 對應，請使用 {@link Dialect#map(String)}
      * @param sqlType 資料庫欄位型別
      * @return 對應的 Java 類型
      */
     public static String mapSqlType(String sqlType) {
-        sqlType = sqlType.toLowerCase();
-        if (sqlType.matches("char.*|varchar.*|lvarchar.*")) {
-            return "String";
-        } else if (sqlType.matches("int8|serial")) {
-            return "Long";
-        } else if (sqlType.matches("int4|int|integer")) {
-            return "Integer";
-        } else if (sqlType.matches("smallint")) {
-            return "Short";
-        } else if (sqlType.matches("datetime")) {
-            return "LocalDateTime"; // 將 float 映射為 Double
-        } else if (sqlType.contains("float")) {
-            return "Double"; // 將 float 映射為 Double
-        }
-        return sqlType; // 未定義的保持原樣
+        return DEFAULT_DIALECT.map(sqlType).getSimpleName();
+    }
+
+    /**
+     * 跳脫 Java 字串中的特殊字元，用於 產生 字串常數 (如：註解文字)
+     * @param str 原始文字
+     * @return 可放在 雙引號 中的文字
+     */
+    public static String escapeJava(String str) {
+        if (str.indexOf('\\') < 0 && str.indexOf('"') < 0) return str;
+        return str.replace("\\", "\\\\").replace("\"", "\\\"");
     }
 }
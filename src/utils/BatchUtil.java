@@ -0,0 +1,27 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import model.TableModel;
+import template.TemplateEngine;
+
+import static utils.FileUtil.writeIfChanged;
+
+/**
+ * 產生 Spring Batch 批次工作 的相關方法
+ */
+public class BatchUtil {
+    /**
+     * 建立 批次工作 設定類別，包含 NDJSON 檔案 的 匯入工作 與 匯出工作
+     * @param table table 定義
+     * @param engine template 引擎
+     * @param context table 的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static void generateBatchJob(TableModel table, TemplateEngine engine, Map<String, Object> context) throws IOException {
+        File batchFile = new File("file/output/batch/" + table.getEntityName() + "BatchConfig.java");
+        writeIfChanged(batchFile, engine.render("batchJob", context), "Batch Job");
+    }
+}
@@ -0,0 +1,70 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import template.TemplateEngine;
+
+import static utils.FileUtil.writeIfChanged;
+
+/**
+ * 產生 所有 table 共用的 Spring 設定類別 的相關方法
+ */
+public class ConfigUtil {
+    /**
+     * 建立 快取設定類別，以 本機 Caffeine 快取 實作 Spring Cache，限制 筆數 與 存活時間
+     * @param engine template 引擎
+     * @param globals 所有 table 共用的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static void generateCachingConfig(TemplateEngine engine, Map<String, Object> globals) throws IOException {
+        File configFile = new File("file/output/config/CachingConfig.java");
+        writeIfChanged(configFile, engine.render("cachingConfig", globals), "Caching Config");
+    }
+
+    /**
+     * 建立 Micrometer 設定類別，啟用 @Timed 的 aspect
+     * @param engine template 引擎
+     * @param globals 所有 table 共用的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static void generateMetricsConfig(TemplateEngine engine, Map<String, Object> globals) throws IOException {
+        File configFile = new File("file/output/config/MetricsConfig.java");
+        writeIfChanged(configFile, engine.render("metricsConfig", globals), "Metrics Config");
+    }
+
+    /**
+     * 建立 virtual thread 設定類別，以 virtual thread 處理 HTTP 請求 與 @Async 工作
+     * @param engine template 引擎
+     * @param globals 所有 table 共用的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static void generateVirtualThreadConfig(TemplateEngine engine, Map<String, Object> globals) throws IOException {
+        File configFile = new File("file/output/config/VirtualThreadConfig.java");
+        writeIfChanged(configFile, engine.render("virtualThreadConfig", globals), "Virtual Thread Config");
+    }
+
+    /**
+     * 建立 bulkhead 類別，限制 每個 entity 同時 存取資料庫 的 執行緒數
+     * @param engine template 引擎
+     * @param globals 所有 table 共用的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static void generateDbBulkhead(TemplateEngine engine, Map<String, Object> globals) throws IOException {
+        File configFile = new File("file/output/config/DbBulkhead.java");
+        writeIfChanged(configFile, engine.render("dbBulkhead", globals), "DB Bulkhead");
+    }
+
+    /**
+     * 建立 Spring Batch 設定類別，啟用 批次工作 並 提供 分割 平行執行 的 執行緒池
+     * @param engine template 引擎
+     * @param globals 所有 table 共用的 template 變數
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static void generateBatchConfig(TemplateEngine engine, Map<String, Object> globals) throws IOException {
+        File configFile = new File("file/output/config/BatchConfig.java");
+        writeIfChanged(configFile, engine.render("batchConfig", globals), "Batch Config");
+    }
+
+}
@@ -0,0 +1,363 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import config.GeneratorConfig;
+import dialect.Dialect;
+import model.ColumnModel;
+import model.ProjectionModel;
+import model.TableModel;
+
+import static utils.BasicUtil.escapeJava;
+import static utils.BasicUtil.toCamelCase;
+import static utils.BasicUtil.toConstantName;
+
+/**
+ * 產生 template 變數的相關方法
+ */
+public class ContextUtil {
+    /** 建構子 參數的 上限 (JVM 限制 255 個 slot，含 this)，欄位 超過時 RowMapper 改用 setter */
+    private static final int MAX_CONSTRUCTOR_PARAMETERS = 254;
+    /** 可 直接 讀取的 ResultSet getter，不需 判斷 wasNull */
+    private static final Map<String, String> DIRECT_GETTERS = new HashMap<>();
+    /** 基本型別的 ResultSet getter，NULL 時 回傳 0 或 false，需以 wasNull 判斷 (Java 類型 -> 基本型別、getter) */
+    private static final Map<String, String[]> PRIMITIVE_GETTERS = new LinkedHashMap<>();
+    /** 版本欄位 可使用的 Java 類型 (Java 類型 -> 新增時的 初始值)，時間 以 目前時間 為 版本 */
+    private static final Map<String, String> VERSION_INITIALS = new LinkedHashMap<>();
+    /** 時間 版本欄位 的 新版本，截至 毫秒 以符合 多數資料庫 的 時間精度 */
+    private static final String VERSION_NOW = ".now().truncatedTo(ChronoUnit.MILLIS)";
+    /** 批次匯出 可 依範圍 分割 的 主鍵 Java 類型 */
+    private static final Set<String> RANGE_KEY_TYPES = new HashSet<>(Arrays.asList("Integer", "Long", "Short"));
+
+    static {
+        DIRECT_GETTERS.put("String", "getString");
+        DIRECT_GETTERS.put("BigDecimal", "getBigDecimal");
+        DIRECT_GETTERS.put("byte[]", "getBytes");
+        PRIMITIVE_GETTERS.put("Integer", new String[]{"int", "getInt"});
+        PRIMITIVE_GETTERS.put("Long", new String[]{"long", "getLong"});
+        PRIMITIVE_GETTERS.put("Short", new String[]{"short", "getShort"});
+        PRIMITIVE_GETTERS.put("Double", new String[]{"double", "getDouble"});
+        PRIMITIVE_GETTERS.put("Float", new String[]{"float", "getFloat"});
+        PRIMITIVE_GETTERS.put("Boolean", new String[]{"boolean", "getBoolean"});
+        VERSION_INITIALS.put("Integer", "0");
+        VERSION_INITIALS.put("Long", "0L");
+        VERSION_INITIALS.put("Short", "(short) 0");
+        VERSION_INITIALS.put("LocalDateTime", null);
+        VERSION_INITIALS.put("OffsetDateTime", null);
+    }
+
+    /**
+     * 建立 所有 table 共用的 template 變數，來自 產生器設定
+     * @param config 產生器設定
+     * @return template 變數
+     */
+    public static Map<String, Object> globalContext(GeneratorConfig config) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("batchSize", config.getInt("batch.size", 1000));
+        context.put("batchChunkSize", config.getInt("batch.chunk.size", 10000));
+        context.put("pageMaxSize", config.getInt("page.max.size", 1000));
+        context.put("streamFetchSize", config.getInt("stream.fetch.size", 1000));
+        context.put("cacheEnabled", config.getBoolean("cache.enabled", false));
+        context.put("charTrimConverter", config.isTrimConverter());
+        context.put("cacheMaxSize", config.getInt("cache.max.size", 10000));
+        context.put("cacheTtlSeconds", config.getInt("cache.ttl.seconds", 600));
+        context.put("metrics", config.getBoolean("metrics.enabled", false));
+        context.put("virtualThreads", config.getBoolean("virtual.threads", false));
+        // 每個 entity 同時 存取資料庫 的 上限，0 為 不限制
+        int dbMaxConcurrency = config.getInt("db.max.concurrency", 0);
+        context.put("bulkhead", dbMaxConcurrency > 0);
+        context.put("dbMaxConcurrency", dbMaxConcurrency);
+        context.put("dbAcquireTimeoutMs", config.getInt("db.acquire.timeout.ms", 30000));
+        context.put("batchJob", config.getBoolean("batch.job", false));
+        context.put("batchPartitions", config.getInt("batch.job.partitions", 4));
+        // 版本欄位 的 名稱 (小寫)，依 優先順序
+        List<String> versionColumns = new ArrayList<>();
+        for (String name : config.get("version.column", "").split(",")) {
+            if (!name.trim().isEmpty()) {
+                versionColumns.add(name.trim().toLowerCase());
+            }
+        }
+        context.put("versionColumns", versionColumns);
+        return context;
+    }
+
+    /**
+     * 建立 table 的 template 變數，每個 table 只建立一次，供 所有 template 共用
+     * @param table table 定義
+     * @param dialect 資料庫方言，用於 產生 SQL
+     * @param globals 所有 table 共用的 template 變數
+     * @return template 變數
+     */
+    public static Map<String, Object> tableContext(TableModel table, Dialect dialect, Map<String, Object> globals) {
+        Map<String, Object> context = new HashMap<>(globals);
+        context.put("tableName", table.getTableName());
+        context.put("entityName", table.getEntityName());
+        context.put("entityVarName", table.getEntityVarName());
+        context.put("apiName", toCamelCase(table.getEntityName(), true));
+        context.put("description", escapeJava(table.getDescription()));
+        context.put("primaryKeyExists", table.isPrimaryKeyExists());
+        context.put("keysetPageable", table.isKeysetPageable());
+        // 主鍵值 的 SQL 參數，用於 以 主鍵 查詢、刪除 與 分頁
+        context.put("keyParams", table.isPrimaryKeyExists() || table.isKeysetPageable());
+        context.put("compositeKey", table.isCompositeKey());
+        context.put("primaryKeyCount", table.getPrimaryKeyCount());
+        context.put("keyType", table.getKeyType());
+        context.put("keyClassName", table.getKeyClassName());
+        // 單一主鍵 的型別 需要 import 者 (如：BigDecimal)，用於 repository、service
+        ColumnModel keyColumn = table.getPrimaryKeyCount() == 1 ? table.getPrimaryKeys().get(0) : null;
+        context.put("keyImport", keyColumn != null && keyColumn.getType().needsImport() ? keyColumn.getType().getQualifiedName() : null);
+
+        Map<ColumnModel, Map<String, Object>> columnContexts = new HashMap<>();
+        List<Map<String, Object>> columns = new ArrayList<>(table.getColumns().size());
+        List<Map<String, Object>> primaryKeys = new ArrayList<>(table.getPrimaryKeyCount());
+        // 需要 import 的 欄位型別
+        Set<String> typeImports = new TreeSet<>();
+        boolean trimConverter = Boolean.TRUE.equals(globals.get("charTrimConverter"));
+        boolean trimConverterUsed = false;
+        // RowMapper 使用的 基本型別 getter
+        Set<String> primitiveTypes = new TreeSet<>();
+        for (ColumnModel column : table.getColumns()) {
+            if (PRIMITIVE_GETTERS.containsKey(column.getJavaType())) {
+                primitiveTypes.add(column.getJavaType());
+            }
+            if (column.getType().needsImport()) {
+                typeImports.add(column.getType().getQualifiedName());
+            }
+            Map<String, Object> columnContext = columnContext(column, trimConverter);
+            trimConverterUsed |= Boolean.TRUE.equals(columnContext.get("trimConverter"));
+            // 查詢 SQL 的欄位 依照 table 中的順序，以 索引 讀取
+            columnContext.put("reader", readExpression(column, column.getIndex() + 1, columnContext));
+            columnContext.put("rowReader", rowReadExpression(column, column.getIndex()));
+            columnContexts.put(column, columnContext);
+            columns.add(columnContext);
+            if (column.isPrimaryKey()) {
+                primaryKeys.add(columnContext);
+            }
+        }
+        context.put("typeImports", new ArrayList<>(typeImports));
+        // entity 的 LocalDateTime 固定 import
+        typeImports.remove("java.time.LocalDateTime");
+        context.put("imports", new ArrayList<>(typeImports));
+        context.put("columns", columns);
+        context.put("trimConverterUsed", trimConverterUsed);
+        context.put("primaryKeys", primaryKeys);
+        context.put("allArgsConstructor", columns.size() <= MAX_CONSTRUCTOR_PARAMETERS);
+        List<Map<String, Object>> primitiveGetters = new ArrayList<>(primitiveTypes.size());
+        for (String javaType : primitiveTypes) {
+            Map<String, Object> getter = new HashMap<>();
+            getter.put("javaType", javaType);
+            getter.put("primitive", PRIMITIVE_GETTERS.get(javaType)[0]);
+            getter.put("getter", PRIMITIVE_GETTERS.get(javaType)[1]);
+            primitiveGetters.add(getter);
+        }
+        context.put("primitiveGetters", primitiveGetters);
+        // 單一主鍵 的欄位，用於 由 Key 類 取出主鍵值
+        context.put("singleKey", primaryKeys.isEmpty() ? null : primaryKeys.get(0));
+
+        // 有 版本欄位 者，UPDATE 以 主鍵 與 版本 比對，否則 以 變更前的 全部欄位 比對
+        ColumnModel versionColumn = versionColumn(table, (List<?>) globals.get("versionColumns"));
+        List<Map<String, Object>> updateConditions = columns;
+        // 數字的 版本欄位，upsert 更新時 以 資料庫中的值 加 1
+        ColumnModel versionIncrement = null;
+        if (versionColumn != null) {
+            Map<String, Object> versionContext = columnContexts.get(versionColumn);
+            versionContext.put("version", true);
+            updateConditions = new ArrayList<>(primaryKeys);
+            updateConditions.add(versionContext);
+            String javaType = versionColumn.getJavaType();
+            String getter = "get" + versionColumn.getCapitalizedName() + "()";
+            if (VERSION_INITIALS.get(javaType) == null) {
+                context.put("versionNext", javaType + VERSION_NOW);
+                context.put("versionValue", javaType + VERSION_NOW);
+            } else {
+                versionIncrement = versionColumn;
+                // 變更前的 版本 為 null (尚未 使用 版本 的 資料) 時 以 初始值 開始
+                String next = "entityOri." + getter + " + 1";
+                context.put("versionNext", "entityOri." + getter + " == null ? " + VERSION_INITIALS.get(javaType) + " : "
+                        + ("Short".equals(javaType) ? "(short) (" + next + ")" : next));
+                context.put("versionValue", "entity." + getter + " != null ? entity." + getter + " : "
+                        + VERSION_INITIALS.get(javaType));
+            }
+            context.put("versionTime", versionIncrement == null);
+        }
+        context.put("versionColumn", versionColumn == null ? null : columnContexts.get(versionColumn));
+        context.put("updateConditions", updateConditions);
+        // patch 可變更的欄位 (主鍵、版本欄位 除外)，patchIndex 為 SQL 片段 的 位置
+        List<Map<String, Object>> patchColumns = new ArrayList<>();
+        if (table.isPrimaryKeyExists()) {
+            for (ColumnModel column : table.getColumns()) {
+                if (!column.isPrimaryKey() && column != versionColumn) {
+                    Map<String, Object> columnContext = columnContexts.get(column);
+                    columnContext.put("patchIndex", patchColumns.size());
+                    patchColumns.add(columnContext);
+                }
+            }
+        }
+        context.put("patchColumns", patchColumns);
+        context.put("patch", !patchColumns.isEmpty());
+
+        // 快取 只用於 有主鍵者，以 主鍵值 (複合主鍵 為 Key 類) 為 cache key
+        context.put("cached", Boolean.TRUE.equals(globals.get("cacheEnabled")) && table.isPrimaryKeyExists());
+        context.put("cacheKeyProperty", table.isCompositeKey() ? "toKey()" : keyColumn == null ? null : keyColumn.getFieldName());
+
+        // 批次 SQL，無主鍵者 無法判斷 資料是否存在，不產生 upsert
+        context.put("insertSql", escapeLines(SqlUtil.insertSql(table)));
+        context.put("upsertSql", table.isPrimaryKeyExists() ? escapeLines(SqlUtil.upsertSql(table, dialect, versionIncrement)) : null);
+        // 查詢 SQL，無主鍵者 以 全部欄位 排序 分頁；主鍵 可為 NULL 者 無法 keyset 分頁，不產生
+        context.put("pageFirstSql", table.isKeysetPageable() ? escapeLines(SqlUtil.pageSql(table, dialect, false)) : null);
+        context.put("pageAfterSql", table.isKeysetPageable() ? escapeLines(SqlUtil.pageSql(table, dialect, true)) : null);
+        context.put("selectAllSql", escapeLines(SqlUtil.selectAllSql(table)));
+        if (table.isPrimaryKeyExists()) {
+            context.put("findByKeySql", escapeLines(SqlUtil.findByKeySql(table)));
+            context.put("findByKeysSql", escapeLines(SqlUtil.findByKeysSql(table, dialect)));
+            // 複合主鍵 且 資料庫 不支援 多欄位 IN 者，以 OR 串接 各主鍵的條件
+            context.put("findByKeysOr", table.isCompositeKey() && !dialect.isRowValueIn());
+        }
+        if (Boolean.TRUE.equals(globals.get("batchJob"))) {
+            // 單一 整數 主鍵 才能 依 最小值、最大值 分割範圍 平行匯出
+            ColumnModel rangeKey = keyColumn != null && table.isPrimaryKeyExists()
+                    && RANGE_KEY_TYPES.contains(keyColumn.getJavaType()) ? keyColumn : null;
+            context.put("exportRangeKey", rangeKey == null ? null : columnContexts.get(rangeKey));
+            context.put("exportSql", escapeLines(SqlUtil.exportSql(table, rangeKey)));
+        }
+
+        List<Map<String, Object>> projections = new ArrayList<>(table.getProjections().size());
+        for (ProjectionModel projection : table.getProjections()) {
+            projections.add(projectionContext(table, projection, dialect, columnContexts));
+        }
+        context.put("projections", projections);
+        return context;
+    }
+
+    /**
+     * 建立 projection 的 template 變數，欄位 沿用 table 的 欄位變數
+     * @param table table 定義
+     * @param projection projection 定義
+     * @param dialect 資料庫方言，用於 產生 SQL
+     * @param columnContexts 欄位 對應 欄位的 template 變數
+     * @return template 變數
+     */
+    private static Map<String, Object> projectionContext(TableModel table, ProjectionModel projection, Dialect dialect,
+                                                         Map<ColumnModel, Map<String, Object>> columnContexts) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("projectionName", projection.getName());
+        context.put("projectionVarName", projection.getName().substring(0, 1).toLowerCase() + projection.getName().substring(1));
+        context.put("projectionConstant", toConstantName(projection.getName()));
+        List<Map<String, Object>> columns = new ArrayList<>(projection.getColumns().size());
+        List<String> readers = new ArrayList<>(projection.getColumns().size());
+        List<String> rowReaders = new ArrayList<>(projection.getColumns().size());
+        Set<String> imports = new TreeSet<>();
+        for (ColumnModel column : projection.getColumns()) {
+            columns.add(columnContexts.get(column));
+            readers.add(readExpression(column, columns.size(), columnContexts.get(column)));
+            rowReaders.add(rowReadExpression(column, columns.size() - 1));
+            if (column.getType().needsImport()) {
+                imports.add(column.getType().getQualifiedName());
+            }
+        }
+        context.put("columns", columns);
+        context.put("imports", new ArrayList<>(imports));
+        context.put("readers", readers);
+        context.put("rowReaders", rowReaders);
+        context.put("pageFirstSql", escapeLines(SqlUtil.pageSql(table, projection.getColumns(), dialect, false)));
+        context.put("pageAfterSql", escapeLines(SqlUtil.pageSql(table, projection.getColumns(), dialect, true)));
+        return context;
+    }
+
+    /**
+     * 找出 table 的 版本欄位，依 version.column 設定的 順序；主鍵、無主鍵 的 table 與 不支援的型別 不使用
+     * @param table table 定義
+     * @param names 版本欄位 的 名稱 (小寫)
+     * @return 版本欄位，無 時 為 null
+     */
+    private static ColumnModel versionColumn(TableModel table, List<?> names) {
+        for (Object name : names) {
+            for (ColumnModel column : table.getColumns()) {
+                if (!column.getColumnName().equalsIgnoreCase((String) name)) {
+                    continue;
+                }
+                if (!table.isPrimaryKeyExists() || column.isPrimaryKey()) {
+                    System.err.println(table.getTableName() + " 的 版本欄位 " + column.getColumnName() + "：無主鍵 或 為主鍵 者 不適用，已略過");
+                } else if (!VERSION_INITIALS.containsKey(column.getJavaType())) {
+                    System.err.println(table.getTableName() + " 的 版本欄位 " + column.getColumnName() + "：不支援 "
+                            + column.getJavaType() + "，需為 " + String.join("、", VERSION_INITIALS.keySet()) + "，已略過");
+                } else {
+                    return column;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 由 ResultSet 以 索引 讀取 欄位的 Java 程式碼，不使用 反射 與 欄位名稱 查詢 <br/>
+     * 基本型別 以 產出的 getInteger(rs, 1) 等方法 讀取，NULL 時 為 null
+     * @param column 欄位定義
+     * @param index 欄位 在 SELECT 中的 位置 (從 1 開始)
+     * @param columnContext 欄位的 template 變數
+     * @return Java 運算式 (如：rs.getString(1))
+     */
+    private static String readExpression(ColumnModel column, int index, Map<String, Object> columnContext) {
+        String javaType = column.getJavaType();
+        if (Boolean.TRUE.equals(columnContext.get("trimConverter"))) {
+            return "TrimConverter.trimTrailing(rs.getString(" + index + "))";
+        }
+        if (DIRECT_GETTERS.containsKey(javaType)) {
+            return "rs." + DIRECT_GETTERS.get(javaType) + "(" + index + ")";
+        }
+        if (PRIMITIVE_GETTERS.containsKey(javaType)) {
+            return "get" + javaType + "(rs, " + index + ")";
+        }
+        return "rs.getObject(" + index + ", " + javaType + ".class)";
+    }
+
+    /**
+     * 由 R2DBC 的 Row 以 索引 讀取 欄位的 Java 程式碼，NULL 時 為 null
+     * @param column 欄位定義
+     * @param index 欄位 在 SELECT 中的 位置 (從 0 開始)
+     * @return Java 運算式 (如：row.get(0, String.class))
+     */
+    private static String rowReadExpression(ColumnModel column, int index) {
+        return "row.get(" + index + ", " + column.getJavaType() + ".class)";
+    }
+
+    private static List<String> escapeLines(List<String> lines) {
+        List<String> escaped = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            escaped.add(escapeJava(line));
+        }
+        return escaped;
+    }
+
+    /**
+     * 建立 欄位的 template 變數
+     * @param column 欄位定義
+     * @param trimConverter CHAR 欄位 是否 以 AttributeConverter 去除空白
+     * @return template 變數
+     */
+    private static Map<String, Object> columnContext(ColumnModel column, boolean trimConverter) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("columnName", column.getColumnName());
+        context.put("fieldName", column.getFieldName());
+        context.put("capitalizedName", column.getCapitalizedName());
+        context.put("javaType", column.getJavaType());
+        boolean string = "String".equals(column.getJavaType());
+        context.put("string", string);
+        // JPA 不允許 主鍵 使用 AttributeConverter，CHAR 主鍵 仍在 getter 去除空白
+        boolean converted = trimConverter && string && column.isFixedLength() && !column.isPrimaryKey();
+        context.put("trimConverter", converted);
+        context.put("trimGetter", string && !converted && (!trimConverter || column.isFixedLength()));
+        context.put("description", escapeJava(column.getDescription()));
+        context.put("primaryKey", column.isPrimaryKey());
+        context.put("version", false);
+        return context;
+    }
+}
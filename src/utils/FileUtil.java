@@ -0,0 +1,80 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 產出檔案的相關方法
+ */
+public class FileUtil {
+    private static final AtomicInteger writtenCount = new AtomicInteger();
+    private static final AtomicInteger unchangedCount = new AtomicInteger();
+    /** 目前執行緒 產出的檔案 (含 內容相同 未寫入者)，null 為 不記錄 */
+    private static final ThreadLocal<Set<String>> recorded = new ThreadLocal<>();
+
+    /**
+     * 寫入產出檔案，內容與現有檔案 完全相同 時 不寫入，保留檔案時間，避免下游專案 重新編譯
+     * @param file 產出檔案
+     * @param content 檔案內容
+     * @param label 檔案種類，用於 顯示訊息 (如：Entity)
+     * @return 是否有寫入檔案
+     * @throws IOException 讀取或寫入檔案時的錯誤
+     */
+    public static boolean writeIfChanged(File file, String content, String label) throws IOException {
+        Profiler.Span span = Profiler.start();
+        try {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            Set<String> files = recorded.get();
+            if (files != null) {
+                files.add(file.getPath().replace(File.separatorChar, '/'));
+            }
+            // 長度不同 就不必讀取 現有檔案
+            if (file.isFile() && file.length() == bytes.length && Arrays.equals(Files.readAllBytes(file.toPath()), bytes)) {
+                unchangedCount.incrementAndGet();
+                Profiler.recordFile(bytes.length, false);
+                System.out.println(label + " 檔案 未變更，位於 " + file.getPath());
+                return false;
+            }
+            Files.write(file.toPath(), bytes);
+            writtenCount.incrementAndGet();
+            Profiler.recordFile(bytes.length, true);
+            System.out.println("生成 " + label + " 檔案，位於 " + file.getPath());
+            return true;
+        } finally {
+            Profiler.end(span, "io");
+        }
+    }
+
+    /**
+     * 開始記錄 目前執行緒 產出的檔案，用於 增量生成紀錄
+     */
+    public static void startRecording() {
+        recorded.set(new LinkedHashSet<>());
+    }
+
+    /**
+     * 結束記錄
+     * @return 開始記錄後 產出的檔案路徑 (以 / 分隔)
+     */
+    public static Set<String> stopRecording() {
+        Set<String> files = recorded.get();
+        recorded.remove();
+        return files == null ? new LinkedHashSet<>() : files;
+    }
+
+    /** @return 本次執行 寫入的檔案數量 */
+    public static int getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /** @return 本次執行 內容未變更 而略過的檔案數量 */
+    public static int getUnchangedCount() {
+        return unchangedCount.get();
+    }
+}
@@ -0,0 +1,222 @@
+package utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.ColumnModel;
+import model.ProjectionModel;
+import model.TableModel;
+
+/**
+ * 增量生成的紀錄檔，保存 每個 table 上次生成時的 內容雜湊 與 產出的檔案 <br/>
+ * 雜湊涵蓋 table 定義、主鍵、projection、產生器版本 與 設定，皆未變更 且 產出的檔案 皆存在 的 table 可直接略過 <br/>
+ * 格式：table 名稱=雜湊,檔案路徑,檔案路徑...；所有 table 共用的 檔案 記錄於 {@value #SHARED}
+ */
+public class GenerationManifest {
+    /** 產生器版本，產出格式 變更時 需調整，讓 所有 table 重新生成 */
+    public static final String GENERATOR_VERSION = "21";
+
+    /** 所有 table 共用的 檔案 (如：設定類) 的 紀錄名稱，不會 與 table 名稱 重複 */
+    private static final String SHARED = "@shared";
+
+    private final File file;
+    private final String salt;
+    private final Map<String, Entry> previous = new HashMap<>();
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    /**
+     * @param file 紀錄檔位置
+     * @param fingerprint 影響產出內容的 設定摘要
+     */
+    private GenerationManifest(File file, String fingerprint) {
+        this.file = file;
+        this.salt = GENERATOR_VERSION + "\n" + fingerprint;
+    }
+
+    /**
+     * 讀取 紀錄檔，不存在時 視為 全部 table 皆需生成
+     * @param file 紀錄檔位置
+     * @param fingerprint 影響產出內容的 設定摘要
+     * @return 紀錄檔
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    public static GenerationManifest load(File file, String fingerprint) throws IOException {
+        GenerationManifest manifest = new GenerationManifest(file, fingerprint);
+        if (file.exists()) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String tableName : properties.stringPropertyNames()) {
+                manifest.previous.put(tableName, Entry.parse(properties.getProperty(tableName)));
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 判斷 table 自上次生成後 是否未變更，且 上次產出的檔案 皆存在 (如：刪除 產出資料夾 後 需重新生成) <br/>
+     * 未變更時 沿用 上次的紀錄，否則 需於 生成後 呼叫 {@link #record}
+     * @param table table 定義
+     * @return 是否未變更
+     */
+    public boolean isUnchanged(TableModel table) {
+        String hash = hash(table);
+        Entry entry = previous.get(table.getTableName());
+        if (entry == null || !entry.hash.equals(hash) || entry.files.isEmpty()) {
+            return false;
+        }
+        for (String path : entry.files) {
+            if (!new File(path).isFile()) {
+                return false;
+            }
+        }
+        current.put(table.getTableName(), entry);
+        return true;
+    }
+
+    /**
+     * 記錄 table 本次 產出的檔案；生成失敗時 不記錄雜湊，下次執行 會重新生成
+     * @param table table 定義
+     * @param files 本次 產出的檔案
+     * @param generated 是否 生成成功
+     */
+    public void record(TableModel table, Set<String> files, boolean generated) {
+        if (!generated) {
+            // 保留 上次的檔案，避免 失敗時 被視為 不再產生 而刪除
+            Entry entry = previous.get(table.getTableName());
+            if (entry != null) {
+                files.addAll(entry.files);
+            }
+        }
+        current.put(table.getTableName(), new Entry(generated ? hash(table) : "", files));
+    }
+
+    /**
+     * 記錄 所有 table 共用的 檔案
+     * @param files 本次 產出的檔案
+     */
+    public void recordShared(Set<String> files) {
+        current.put(SHARED, new Entry("", files));
+    }
+
+    /**
+     * 刪除 上次產出 而 本次 不再產出 的 檔案，如：關閉 projection、batch.job 等選項，或 table 已不在 schema 中
+     * @return 刪除的檔案數量
+     * @throws IOException 刪除檔案時的錯誤
+     */
+    public int removeStaleFiles() throws IOException {
+        Set<String> produced = new HashSet<>();
+        for (Entry entry : current.values()) {
+            produced.addAll(entry.files);
+        }
+        int removed = 0;
+        for (Entry entry : previous.values()) {
+            for (String path : entry.files) {
+                File stale = new File(path);
+                if (!produced.contains(path) && Files.deleteIfExists(stale.toPath())) {
+                    removed++;
+                    System.out.println("移除 不再產生的 檔案 " + path);
+                    // 資料夾 已無 其他檔案 時 一併刪除 (如：batch、config)
+                    File parent = stale.getParentFile();
+                    String[] remaining = parent == null ? null : parent.list();
+                    if (remaining != null && remaining.length == 0) {
+                        Files.delete(parent.toPath());
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 寫入 紀錄檔，只保留 本次 schema 中的 table
+     * @throws IOException 寫入檔案時的錯誤
+     */
+    public void save() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        parent.mkdirs();
+        // 先寫入暫存檔 再取代，避免 中斷時 留下不完整的紀錄檔
+        File temp = new File(parent, file.getName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# 增量生成紀錄，刪除此檔 或 使用 --force 即可全部重新生成\n");
+            for (Map.Entry<String, Entry> entry : new TreeMap<>(current).entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 計算 table 的內容雜湊
+     * @param table table 定義
+     * @return SHA-256 雜湊 (16 進位)
+     */
+    private String hash(TableModel table) {
+        StringBuilder content = new StringBuilder(salt);
+        content.append(table.getTableName()).append('\n')
+                .append(table.getDescription()).append('\n')
+                .append(table.isPrimaryKeyExists()).append('\n');
+        for (ColumnModel column : table.getColumns()) {
+            content.append(column.getColumnName()).append('\t')
+                    .append(column.getSqlType()).append('\t')
+                    .append(column.getDescription()).append('\t')
+                    .append(column.isPrimaryKey()).append('\n');
+        }
+        for (ProjectionModel projection : table.getProjections()) {
+            content.append(projection.getName());
+            for (ColumnModel column : projection.getColumns()) {
+                content.append('\t').append(column.getColumnName());
+            }
+            content.append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 單一 table 的 紀錄：內容雜湊 與 產出的檔案
+     */
+    private static final class Entry {
+        /** 內容雜湊，生成失敗 或 共用檔案 時 為 空字串 */
+        private final String hash;
+        private final Set<String> files;
+
+        private Entry(String hash, Set<String> files) {
+            this.hash = hash;
+            this.files = files;
+        }
+
+        /**
+         * @param value 紀錄檔的值：雜湊,檔案路徑,檔案路徑...
+         * @return 紀錄
+         */
+        private static Entry parse(String value) {
+            String[] parts = value.split(",");
+            return new Entry(parts[0], new LinkedHashSet<>(Arrays.asList(parts).subList(1, parts.length)));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder value = new StringBuilder(hash);
+            for (String path : files) {
+                value.append(',').append(path);
+            }
+            return value.toString();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import static utils.BasicUtil.escapeJava;
+
+/**
+ * 產生器 執行過程的 效能紀錄，--profile 時 啟用，未啟用時 不做任何紀錄 <br/>
+ * 記錄 各階段 與 各 table 的 執行時間、配置的記憶體、寫入的 位元組數 與 檔案數 <br/>
+ * 階段 可以 巢狀，每個階段 只記錄 扣除 內層階段 後的 時間 (如：entity 不含 寫入檔案 的 io)，各階段 合計 即為 總時間
+ */
+public final class Profiler {
+    private static volatile boolean enabled;
+    /** 可量測 執行緒 配置記憶體 的 JVM (HotSpot) 才有值 */
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static final Map<String, Stat> phases = new ConcurrentHashMap<>();
+    private static final Queue<TableProfile> tables = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Span> current = new ThreadLocal<>();
+    private static final LongAdder bytesWritten = new LongAdder();
+
+    private Profiler() {
+    }
+
+    /** 啟用 效能紀錄 */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /** @return 是否 啟用 效能紀錄 */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 開始 一個階段，需以 {@link #end(Span, String)} 結束
+     * @return 階段，未啟用時 為 null
+     */
+    public static Span start() {
+        if (!enabled) {
+            return null;
+        }
+        Span parent = current.get();
+        Span span = new Span(parent, parent == null ? null : parent.table);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * 結束 階段，記錄 扣除 內層階段 後的 時間 與 配置的記憶體
+     * @param span {@link #start()} 的 回傳值
+     * @param phase 階段名稱 (如：entity)
+     */
+    public static void end(Span span, String phase) {
+        if (span == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - span.startNanos;
+        long bytes = allocatedBytes() - span.startBytes;
+        current.set(span.parent);
+        if (span.parent != null) {
+            span.parent.childNanos += nanos;
+            span.parent.childBytes += bytes;
+        }
+        long selfNanos = nanos - span.childNanos;
+        long selfBytes = bytes - span.childBytes;
+        phases.computeIfAbsent(phase, key -> new Stat()).add(selfNanos, selfBytes);
+        if (span.table != null) {
+            span.table.phaseNanos.merge(phase, selfNanos, Long::sum);
+        }
+    }
+
+    /**
+     * 開始 一個 table 的生成，需以 {@link #endTable(Span)} 結束
+     * @param tableName table 名稱
+     * @return 階段，未啟用時 為 null
+     */
+    public static Span startTable(String tableName) {
+        if (!enabled) {
+            return null;
+        }
+        Span span = new Span(current.get(), new TableProfile(tableName));
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * 結束 table 的生成，記錄 該 table 的 總時間 與 配置的記憶體
+     * @param span {@link #startTable(String)} 的 回傳值
+     */
+    public static void endTable(Span span) {
+        if (span == null) {
+            return;
+        }
+        span.table.nanos = System.nanoTime() - span.startNanos;
+        span.table.allocatedBytes = allocatedBytes() - span.startBytes;
+        tables.add(span.table);
+        // table 本身 不是 階段，只需 由 外層階段 (佇列已滿時 為 解析) 扣除
+        current.set(span.parent);
+        if (span.parent != null) {
+            span.parent.childNanos += span.table.nanos;
+            span.parent.childBytes += span.table.allocatedBytes;
+        }
+    }
+
+    /**
+     * 記錄 一個 產出檔案
+     * @param bytes 檔案大小
+     * @param written 是否有寫入 (內容相同者 未寫入)
+     */
+    public static void recordFile(long bytes, boolean written) {
+        Span span = enabled ? current.get() : null;
+        if (span == null) {
+            return;
+        }
+        if (written) {
+            bytesWritten.add(bytes);
+        }
+        if (span.table != null) {
+            if (written) {
+                span.table.bytesWritten += bytes;
+                span.table.filesWritten++;
+            } else {
+                span.table.filesUnchanged++;
+            }
+        }
+    }
+
+    /**
+     * 輸出 JSON 報告 並 在 console 顯示 摘要
+     * @param file JSON 報告 檔案
+     * @param totalMillis 總執行時間 (毫秒)
+     * @param tableCount table 數量
+     * @param skipped 未變更 而略過的 table 數量
+     * @param failed 生成失敗的 table 數量
+     * @throws IOException 寫入檔案時的錯誤
+     */
+    public static void report(File file, long totalMillis, int tableCount, int skipped, int failed) throws IOException {
+        List<Map.Entry<String, Stat>> phaseList = new ArrayList<>(phases.entrySet());
+        phaseList.sort((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()));
+        List<TableProfile> tableList = new ArrayList<>(tables);
+        tableList.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("    \"totalMillis\" : ").append(totalMillis).append(",\n")
+                .append("    \"allocationSupported\" : ").append(THREADS != null).append(",\n")
+                .append("    \"tables\" : { \"total\" : ").append(tableCount)
+                .append(", \"generated\" : ").append(tableList.size())
+                .append(", \"skipped\" : ").append(skipped)
+                .append(", \"failed\" : ").append(failed).append(" },\n")
+                .append("    \"files\" : { \"written\" : ").append(FileUtil.getWrittenCount())
+                .append(", \"unchanged\" : ").append(FileUtil.getUnchangedCount())
+                .append(", \"bytesWritten\" : ").append(bytesWritten.sum()).append(" },\n")
+                .append("    \"phases\" : [\n");
+        for (int i = 0; i < phaseList.size(); i++) {
+            Stat stat = phaseList.get(i).getValue();
+            json.append("        { \"phase\" : \"").append(escapeJava(phaseList.get(i).getKey()))
+                    .append("\", \"count\" : ").append(stat.count.sum())
+                    .append(", \"millis\" : ").append(millis(stat.nanos.sum()))
+                    .append(", \"allocatedBytes\" : ").append(stat.bytes.sum())
+                    .append(" }").append(i < phaseList.size() - 1 ? "," : "").append('\n');
+        }
+        json.append("    ],\n")
+                .append("    \"tableDetails\" : [\n");
+        for (int i = 0; i < tableList.size(); i++) {
+            TableProfile table = tableList.get(i);
+            json.append("        { \"table\" : \"").append(escapeJava(table.tableName))
+                    .append("\", \"millis\" : ").append(millis(table.nanos))
+                    .append(", \"allocatedBytes\" : ").append(table.allocatedBytes)
+                    .append(", \"bytesWritten\" : ").append(table.bytesWritten)
+                    .append(", \"filesWritten\" : ").append(table.filesWritten)
+                    .append(", \"filesUnchanged\" : ").append(table.filesUnchanged)
+                    .append(", \"phases\" : {");
+            int j = 0;
+            for (Map.Entry<String, Long> phase : new TreeMap<>(table.phaseNanos).entrySet()) {
+                json.append(j++ == 0 ? " " : ", ").append('"').append(escapeJava(phase.getKey())).append("\" : ")
+                        .append(millis(phase.getValue()));
+            }
+            json.append(" } }").append(i < tableList.size() - 1 ? "," : "").append('\n');
+        }
+        json.append("    ]\n}\n");
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+
+        // 摘要：各階段 由慢到快，最慢的 10 個 table
+        StringBuilder summary = new StringBuilder("\n===== 效能紀錄 =====\n");
+        summary.append(String.format(Locale.ROOT, "%-16s %8s %12s %14s%n", "階段", "次數", "時間(ms)", "配置記憶體(KB)"));
+        for (Map.Entry<String, Stat> phase : phaseList) {
+            Stat stat = phase.getValue();
+            summary.append(String.format(Locale.ROOT, "%-16s %8d %12s %14d%n", phase.getKey(), stat.count.sum(),
+                    millis(stat.nanos.sum()), stat.bytes.sum() / 1024));
+        }
+        summary.append(String.format(Locale.ROOT, "%n最慢的 table (共 %d 個)%n", tableList.size()));
+        summary.append(String.format(Locale.ROOT, "%-30s %12s %14s %12s %8s%n", "table", "時間(ms)", "配置記憶體(KB)", "寫入(KB)", "檔案數"));
+        for (TableProfile table : tableList.subList(0, Math.min(10, tableList.size()))) {
+            summary.append(String.format(Locale.ROOT, "%-30s %12s %14d %12d %8d%n", table.tableName, millis(table.nanos),
+                    table.allocatedBytes / 1024, table.bytesWritten / 1024, table.filesWritten + table.filesUnchanged));
+        }
+        summary.append("完整報告 位於 ").append(file.getPath());
+        System.out.println(summary);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * @return 目前執行緒 累計 配置的記憶體，JVM 不支援時 為 0
+     */
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 進行中的 階段，只由 建立的執行緒 使用
+     */
+    public static final class Span {
+        private final Span parent;
+        private final TableProfile table;
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = allocatedBytes();
+        private long childNanos;
+        private long childBytes;
+
+        private Span(Span parent, TableProfile table) {
+            this.parent = parent;
+            this.table = table;
+        }
+    }
+
+    /**
+     * 階段 的 累計
+     */
+    private static final class Stat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private void add(long nanos, long bytes) {
+            this.count.increment();
+            this.nanos.add(nanos);
+            this.bytes.add(bytes);
+        }
+    }
+
+    /**
+     * 單一 table 的 紀錄，只由 生成該 table 的 執行緒 修改
+     */
+    private static final class TableProfile {
+        private final String tableName;
+        private final Map<String, Long> phaseNanos = new HashMap<>();
+        private long nanos;
+        private long allocatedBytes;
+        private long bytesWritten;
+        private int filesWritten;
+        private int filesUnchanged;
+
+        private TableProfile(String tableName) {
+            this.tableName = tableName;
+        }
+    }
+}
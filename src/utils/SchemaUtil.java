@@ -0,0 +1,441 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.Consumer;
+
+import dialect.Dialect;
+import model.ColumnModel;
+import model.ProjectionModel;
+import model.TableModel;
+import parser.DdlListener;
+import parser.DdlParser;
+
+/**
+ * 解析 schema 的相關方法
+ */
+public class SchemaUtil {
+
+    /**
+     * 單一 table 的解析過程資料
+     */
+    private static class TableDefinition {
+        /** table 名稱 */
+        private final String tableName;
+        /** table 的中文註解 */
+        private final String description;
+        /** 欄位名稱、型別、中文註解 */
+        private final List<String[]> columns = new ArrayList<>();
+        /** 主鍵集合 */
+        private final Set<String> primaryKeys = new LinkedHashSet<>();
+        /** 唯一鍵 的 欄位清單，依照 定義順序 */
+        private final List<List<String>> uniqueKeys = new ArrayList<>();
+        /** NOT NULL 欄位，欄位名稱(小寫) 對應 欄位名稱 */
+        private final Map<String, String> notNullColumns = new HashMap<>();
+
+        private TableDefinition(String tableName, String description) {
+            this.tableName = tableName;
+            this.description = description;
+        }
+    }
+
+    /**
+     * 串流讀取 schema 檔，每解析完 一個 table 就交給 consumer 處理 <br/>
+     * table 在 下一個 CREATE TABLE 開始 或 檔案結束 時 才完成，
+     * 因此 緊接在後的 ALTER TABLE ... PRIMARY KEY、CREATE UNIQUE INDEX 也會套用；
+     * 出現在 其他 table 之後的 條件約束 (如：pg_dump 等 將 條件約束 放在 最後) 無法套用，會顯示警告 <br/>
+     * prescan 時 先掃描 一次 整份 schema，只收集 主鍵 與 唯一鍵，再 串流解析 table，條件約束 的 位置 不受限制
+     * @param inputFile CREATE TABLE 語句檔案，可包含多個 table
+     * @param pkFile 主鍵定義檔案
+     * @param projectionFile projection 定義檔案，不存在時 不產生 projection
+     * @param dialect 資料庫方言，用於 型別對應
+     * @param uniqueKeyIdentity 無主鍵 的 table 是否 以 唯一鍵 作為 主鍵；false 時 一律 以 全部欄位 作為 主鍵
+     * @param prescan 是否 先掃描 條件約束 (讀取 schema 兩次)
+     * @param consumer table 定義的接收者，依照 schema 中出現的順序 呼叫
+     * @return table 數量
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    public static int parseSchema(File inputFile, File pkFile, File projectionFile, Dialect dialect,
+                                  boolean uniqueKeyIdentity, boolean prescan, Consumer<TableModel> consumer) throws IOException {
+        // 讀取主鍵定義，主鍵檔的設定 優先於 schema 中的 PRIMARY KEY
+        Map<String, List<String>> sectionKeys = readPrimaryKeyFile(pkFile);
+        Map<String, Map<String, List<String>>> projections = readProjectionFile(projectionFile);
+
+        Map<String, TableDefinition> constraints = null;
+        if (prescan) {
+            Profiler.Span span = Profiler.start();
+            ConstraintListener constraintListener = new ConstraintListener();
+            try (Reader reader = Files.newBufferedReader(inputFile.toPath(), StandardCharsets.UTF_8)) {
+                new DdlParser(reader, constraintListener).parse();
+            }
+            constraints = constraintListener.constraints;
+            Profiler.end(span, "prescan");
+        }
+        SchemaListener listener = new SchemaListener(sectionKeys, projections, dialect, uniqueKeyIdentity, constraints, consumer);
+        try (Reader reader = Files.newBufferedReader(inputFile.toPath(), StandardCharsets.UTF_8)) {
+            new DdlParser(reader, listener).parse();
+        }
+        return listener.count;
+    }
+
+    /**
+     * 預先掃描 整份 schema，只收集 各 table 的 主鍵 與 唯一鍵，不保留 欄位
+     */
+    private static class ConstraintListener implements DdlListener {
+        /** table 名稱(小寫) 對應 條件約束，只使用 primaryKeys 與 uniqueKeys */
+        private final Map<String, TableDefinition> constraints = new HashMap<>();
+
+        @Override
+        public void onTable(String tableName, String description) {
+        }
+
+        @Override
+        public void onColumn(String columnName, String sqlType, boolean nullable, String description) {
+        }
+
+        @Override
+        public void onPrimaryKey(String tableName, List<String> columns) {
+            constraints.computeIfAbsent(tableName.toLowerCase(), k -> new TableDefinition(tableName, "")).primaryKeys.addAll(columns);
+        }
+
+        @Override
+        public void onUniqueKey(String tableName, List<String> columns) {
+            if (!columns.isEmpty()) {
+                constraints.computeIfAbsent(tableName.toLowerCase(), k -> new TableDefinition(tableName, "")).uniqueKeys.add(columns);
+            }
+        }
+
+        @Override
+        public void onEnd() {
+        }
+    }
+
+    /**
+     * 接收 DdlParser 的解析事件，組合出 table 定義
+     */
+    private static class SchemaListener implements DdlListener {
+        private final Map<String, List<String>> sectionKeys;
+        private final Map<String, Map<String, List<String>>> projections;
+        private final Dialect dialect;
+        private final boolean uniqueKeyIdentity;
+        /** 預先掃描的 條件約束，null 為 未預先掃描 (使用 table 之後 緊接的 條件約束) */
+        private final Map<String, TableDefinition> constraints;
+        private final Consumer<TableModel> consumer;
+        /** 已完成的 table 名稱(小寫)，用於 警告 無法套用的 條件約束 */
+        private final Set<String> flushedTables = new HashSet<>();
+        private TableDefinition table;
+        private int count;
+
+        private SchemaListener(Map<String, List<String>> sectionKeys, Map<String, Map<String, List<String>>> projections,
+                               Dialect dialect, boolean uniqueKeyIdentity, Map<String, TableDefinition> constraints,
+                               Consumer<TableModel> consumer) {
+            this.sectionKeys = sectionKeys;
+            this.projections = projections;
+            this.dialect = dialect;
+            this.uniqueKeyIdentity = uniqueKeyIdentity;
+            this.constraints = constraints;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onTable(String tableName, String description) {
+            flush();
+            table = new TableDefinition(tableName, description);
+        }
+
+        @Override
+        public void onColumn(String columnName, String sqlType, boolean nullable, String description) {
+            table.columns.add(new String[]{columnName, sqlType, description});
+            if (!nullable) {
+                table.notNullColumns.put(columnName.toLowerCase(), columnName);
+            }
+        }
+
+        @Override
+        public void onPrimaryKey(String tableName, List<String> columns) {
+            if (constraints != null) {
+                // 已由 預先掃描 收集
+                return;
+            }
+            if (table != null && table.tableName.equalsIgnoreCase(tableName)) {
+                table.primaryKeys.addAll(columns);
+            } else {
+                warnSkipped(tableName, "主鍵", columns);
+            }
+        }
+
+        @Override
+        public void onUniqueKey(String tableName, List<String> columns) {
+            if (constraints != null || columns.isEmpty()) {
+                return;
+            }
+            if (table != null && table.tableName.equalsIgnoreCase(tableName)) {
+                table.uniqueKeys.add(columns);
+            } else {
+                warnSkipped(tableName, "唯一鍵", columns);
+            }
+        }
+
+        /**
+         * 條件約束 不是 緊接在 所屬 table 之後，table 已完成 或 尚未出現，無法套用
+         */
+        private void warnSkipped(String tableName, String kind, List<String> columns) {
+            System.err.println("警告：" + tableName + " 的 " + kind + " (" + String.join(", ", columns) + ") "
+                    + (flushedTables.contains(tableName.toLowerCase()) ? "出現在 其他 table 之後" : "出現在 CREATE TABLE 之前 或 table 不存在")
+                    + "，已略過；條件約束 放在 schema 最後 者，請設定 schema.prescan=true");
+        }
+
+        @Override
+        public void onEnd() {
+            flush();
+        }
+
+        /**
+         * 完成 目前的 table，套用 主鍵檔 的設定 後 交給 consumer
+         */
+        private void flush() {
+            if (table == null) {
+                return;
+            }
+            flushedTables.add(table.tableName.toLowerCase());
+            TableDefinition scanned = constraints == null ? null : constraints.remove(table.tableName.toLowerCase());
+            if (scanned != null) {
+                table.primaryKeys.addAll(scanned.primaryKeys);
+                table.uniqueKeys.addAll(scanned.uniqueKeys);
+            }
+            List<String> keys = sectionKeys.get(table.tableName.toLowerCase());
+            // 未分段的主鍵設定，沿用 單一 table 的舊格式，套用於 第一個 table
+            if (keys == null && count == 0) {
+                keys = sectionKeys.get("");
+            }
+            if (keys != null && !keys.isEmpty()) {
+                table.primaryKeys.clear();
+                table.primaryKeys.addAll(keys);
+            }
+            resolvePrimaryKeys(table);
+            // 主鍵 (DDL 的 PRIMARY KEY 或 主鍵檔) 依定義 不可為 NULL，未宣告 NOT NULL 者 亦同
+            for (String key : table.primaryKeys) {
+                table.notNullColumns.put(key.toLowerCase(), key);
+            }
+            if (table.primaryKeys.isEmpty()) {
+                resolveKeylessIdentity(table, uniqueKeyIdentity);
+            }
+            count++;
+            Map<String, List<String>> tableProjections = projections.get(table.tableName.toLowerCase());
+            // 型別對應 與 建立 table 定義，不含 解析 DDL
+            Profiler.Span span = Profiler.start();
+            TableModel model = toModel(table, dialect, tableProjections == null ? Collections.emptyMap() : tableProjections);
+            Profiler.end(span, "typeMapping");
+            consumer.accept(model);
+            table = null;
+        }
+    }
+
+    /**
+     * 主鍵名稱 不分大小寫 對應到 欄位名稱，如：PRIMARY KEY (CLIENT_ID) 對應 client_id <br/>
+     * 不存在的欄位 略過 並 顯示警告；全部 皆不存在 時 視為 無主鍵
+     * @param table 解析過程資料
+     */
+    private static void resolvePrimaryKeys(TableDefinition table) {
+        if (table.primaryKeys.isEmpty()) {
+            return;
+        }
+        Map<String, String> columnNames = new HashMap<>();
+        for (String[] column : table.columns) {
+            columnNames.put(column[0].toLowerCase(), column[0]);
+        }
+        List<String> resolved = new ArrayList<>(table.primaryKeys.size());
+        for (String key : table.primaryKeys) {
+            String columnName = columnNames.get(key.toLowerCase());
+            if (columnName == null) {
+                System.err.println("警告：" + table.tableName + " 的 主鍵欄位 " + key + " 不存在，已略過");
+            } else {
+                resolved.add(columnName);
+            }
+        }
+        table.primaryKeys.clear();
+        table.primaryKeys.addAll(resolved);
+    }
+
+    /**
+     * 無主鍵 的 table，以 欄位數 最少 且 欄位 皆為 NOT NULL 的 唯一鍵 作為 主鍵 <br/>
+     * 可為 null 的 唯一鍵 允許 多筆 null，無法 識別 單筆資料；找不到時 以 全部欄位 作為 主鍵 並 顯示警告 <br/>
+     * 不使用 實體位置 (Oracle、Informix 的 ROWID，PostgreSQL 的 ctid)：新增時 無法 由程式 指定，JPA 的 save 無法使用；
+     * ctid 每次 UPDATE 都會改變，ROWID 也會因 資料搬移 (如：分割、重整) 而改變
+     * @param table 解析過程資料
+     * @param uniqueKeyIdentity 是否 以 唯一鍵 作為 主鍵
+     */
+    private static void resolveKeylessIdentity(TableDefinition table, boolean uniqueKeyIdentity) {
+        List<String> identity = null;
+        if (uniqueKeyIdentity) {
+            for (List<String> uniqueKey : table.uniqueKeys) {
+                if (identity != null && uniqueKey.size() >= identity.size()) {
+                    continue;
+                }
+                List<String> columns = new ArrayList<>(uniqueKey.size());
+                for (String columnName : uniqueKey) {
+                    String notNullColumn = table.notNullColumns.get(columnName.toLowerCase());
+                    if (notNullColumn != null) {
+                        columns.add(notNullColumn);
+                    }
+                }
+                if (columns.size() == uniqueKey.size()) {
+                    identity = columns;
+                }
+            }
+        }
+        if (identity != null) {
+            table.primaryKeys.addAll(identity);
+            System.out.println(table.tableName + " 無主鍵，以 唯一鍵 (" + String.join(", ", identity) + ") 作為 主鍵");
+        } else {
+            System.err.println("警告：" + table.tableName + " 無主鍵"
+                    + (uniqueKeyIdentity ? " 也無 欄位 皆為 NOT NULL 的 唯一鍵" : "")
+                    + "，以 全部欄位 作為 複合主鍵，update、delete 的 條件 無法使用索引，建議 在 primary_keys.txt 設定主鍵"
+                    + " (ROWID、ctid 等 實體位置 會改變，不作為 主鍵)");
+        }
+    }
+
+    /**
+     * 將 解析過程資料 轉換為 table 定義
+     * @param table 解析過程資料
+     * @param dialect 資料庫方言，用於 型別對應
+     * @param projections projection 名稱 對應 欄位名稱清單
+     * @return table 定義
+     */
+    private static TableModel toModel(TableDefinition table, Dialect dialect, Map<String, List<String>> projections) {
+        boolean primaryKeyExists = table.primaryKeys.size() > 0;
+        List<ColumnModel> columns = new ArrayList<>(table.columns.size());
+        List<String> nullableKeys = new ArrayList<>();
+        for (String[] column : table.columns) {
+            // 針對無主鍵者，所有欄位都變成主鍵
+            boolean primaryKey = !primaryKeyExists || table.primaryKeys.contains(column[0]);
+            boolean nullable = !table.notNullColumns.containsKey(column[0].toLowerCase());
+            if (primaryKey && nullable) {
+                nullableKeys.add(column[0]);
+            }
+            columns.add(new ColumnModel(column[0], column[1], dialect.map(column[1]), column[2], primaryKey, nullable, columns.size()));
+        }
+        if (!nullableKeys.isEmpty()) {
+            System.err.println("警告：" + table.tableName + " 的 主鍵 含 可為 NULL 的欄位 (" + String.join(", ", nullableKeys)
+                    + ")，keyset 分頁 無法比較 NULL 而 漏掉資料，不產生 分頁查詢 (/page)"
+                    + (projections.isEmpty() || !primaryKeyExists ? "" : " 與 projection"));
+        }
+        return new TableModel(table.tableName, table.description, columns, primaryKeyExists,
+                toProjections(table.tableName, columns, primaryKeyExists, nullableKeys.isEmpty(), projections));
+    }
+
+    /**
+     * 建立 projection 定義，主鍵 一律加在 最前面；不存在的欄位 略過
+     * @param tableName table 名稱，用於 警告訊息
+     * @param columns table 的 欄位清單
+     * @param primaryKeyExists 主鍵是否存在
+     * @param keysetPageable 是否 可以 依 主鍵 keyset 分頁，projection 只用於 分頁查詢
+     * @param projections projection 名稱 對應 欄位名稱清單
+     * @return projection 定義清單
+     */
+    private static List<ProjectionModel> toProjections(String tableName, List<ColumnModel> columns, boolean primaryKeyExists,
+                                                       boolean keysetPageable, Map<String, List<String>> projections) {
+        if (projections.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!primaryKeyExists) {
+            // 無主鍵者 全部欄位 皆為主鍵，projection 沒有意義
+            System.err.println(tableName + " 無主鍵，略過 projection 設定");
+            return Collections.emptyList();
+        }
+        if (!keysetPageable) {
+            // 已在 toModel 顯示警告
+            return Collections.emptyList();
+        }
+        Map<String, ColumnModel> columnMap = new HashMap<>();
+        for (ColumnModel column : columns) {
+            columnMap.put(column.getColumnName().toLowerCase(), column);
+        }
+        List<ProjectionModel> models = new ArrayList<>(projections.size());
+        for (Map.Entry<String, List<String>> projection : projections.entrySet()) {
+            Set<ColumnModel> selected = new LinkedHashSet<>();
+            for (ColumnModel column : columns) {
+                if (column.isPrimaryKey()) {
+                    selected.add(column);
+                }
+            }
+            for (String columnName : projection.getValue()) {
+                ColumnModel column = columnMap.get(columnName.toLowerCase());
+                if (column == null) {
+                    System.err.println(tableName + " 的 projection " + projection.getKey() + "：欄位 " + columnName + " 不存在，已略過");
+                } else {
+                    selected.add(column);
+                }
+            }
+            models.add(new ProjectionModel(projection.getKey(), new ArrayList<>(selected)));
+        }
+        return models;
+    }
+
+    /**
+     * 讀取 projection 定義檔 <br/>
+     * 以 [table 名稱] 分段，每行 一個 projection：DTO 類別名稱 = 欄位, 欄位 ...；# 開頭 為 註解
+     * @param projectionFile projection 定義檔案
+     * @return table 名稱(小寫) 對應 projection 名稱 與 欄位名稱清單
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    private static Map<String, Map<String, List<String>>> readProjectionFile(File projectionFile) throws IOException {
+        Map<String, Map<String, List<String>>> projections = new HashMap<>();
+        if (!projectionFile.exists()) {
+            return projections;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(projectionFile.toPath(), StandardCharsets.UTF_8)) {
+            String section = "";
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int equals = line.indexOf('=');
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    section = line.substring(1, line.length() - 1).trim().toLowerCase();
+                } else if (!line.isEmpty() && !line.startsWith("#") && equals > 0) {
+                    List<String> columns = new ArrayList<>();
+                    for (String column : line.substring(equals + 1).split(",")) {
+                        if (!column.trim().isEmpty()) {
+                            columns.add(column.trim());
+                        }
+                    }
+                    projections.computeIfAbsent(section, k -> new LinkedHashMap<>()).put(line.substring(0, equals).trim(), columns);
+                }
+            }
+        }
+        return projections;
+    }
+
+    /**
+     * 讀取主鍵定義檔 <br/>
+     * 以 [table 名稱] 分段，每行一個主鍵欄位；未分段者 以空字串 為 key
+     * @param pkFile 主鍵定義檔案
+     * @return table 名稱(小寫) 對應 主鍵欄位清單
+     * @throws IOException 讀取檔案時的錯誤
+     */
+    private static Map<String, List<String>> readPrimaryKeyFile(File pkFile) throws IOException {
+        Map<String, List<String>> sectionKeys = new HashMap<>();
+        if (!pkFile.exists()) {
+            return sectionKeys;
+        }
+        try (BufferedReader pkReader = Files.newBufferedReader(pkFile.toPath(), StandardCharsets.UTF_8)) {
+            String section = "";
+            String pkLine;
+            while ((pkLine = pkReader.readLine()) != null) {
+                pkLine = pkLine.trim();
+                if (pkLine.startsWith("[") && pkLine.endsWith("]")) {
+                    section = pkLine.substring(1, pkLine.length() - 1).trim().toLowerCase();
+                    sectionKeys.computeIfAbsent(section, k -> new ArrayList<>());
+                } else if (!pkLine.isEmpty()) {
+                    sectionKeys.computeIfAbsent(section, k -> new ArrayList<>()).add(pkLine);
+                }
+            }
+        }
+        return sectionKeys;
+    }
+}
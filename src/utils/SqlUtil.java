@@ -0,0 +1,267 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dialect.Dialect;
+import model.ColumnModel;
+import model.TableModel;
+
+/**
+ * 產生 SQL 語句 的相關方法 <br/>
+ * 回傳 多行文字，每行 為 產出程式碼中 一段 字串常數，除最後一行外 皆以 空白 結尾，供 樣板 以 + 串接
+ */
+public class SqlUtil {
+    /** 每行 SQL 的 建議長度，超過時 欄位清單 換行 */
+    private static final int LINE_WIDTH = 100;
+
+    /**
+     * INSERT INTO table (欄位...) VALUES (:參數...)
+     * @param table table 定義
+     * @return SQL 各行
+     */
+    public static List<String> insertSql(TableModel table) {
+        List<String> lines = new ArrayList<>();
+        appendList(lines, "INSERT INTO " + table.getTableName() + " (", columnNames(table.getColumns(), ""), ") ");
+        appendList(lines, "VALUES (", parameterNames(table.getColumns()), ")");
+        return lines;
+    }
+
+    /**
+     * 依 資料庫方言 產生 新增或更新 的 SQL，以 主鍵 判斷 資料是否存在
+     * @param table table 定義
+     * @param dialect 資料庫方言
+     * @param increment 更新時 以 資料庫中的值 加 1 的 欄位 (數字的 版本欄位)，無 時 為 null
+     * @return SQL 各行
+     */
+    public static List<String> upsertSql(TableModel table, Dialect dialect, ColumnModel increment) {
+        List<ColumnModel> keys = table.getPrimaryKeys();
+        List<ColumnModel> values = new ArrayList<>();
+        for (ColumnModel column : table.getColumns()) {
+            if (!column.isPrimaryKey()) {
+                values.add(column);
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        switch (dialect.getUpsertStyle()) {
+            case ON_CONFLICT:
+                lines.addAll(insertSql(table));
+                lastLineAppend(lines, " ");
+                appendList(lines, "ON CONFLICT (", columnNames(keys, ""), ") ");
+                if (values.isEmpty()) {
+                    lines.add("DO NOTHING");
+                } else {
+                    List<String> sets = new ArrayList<>();
+                    for (ColumnModel column : values) {
+                        sets.add(column.getColumnName() + " = " + (column == increment
+                                ? versionIncrement(table.getTableName() + "." + column.getColumnName()) : "EXCLUDED." + column.getColumnName()));
+                    }
+                    appendList(lines, "DO UPDATE SET ", sets, "");
+                }
+                break;
+            case ON_DUPLICATE_KEY:
+                lines.addAll(insertSql(table));
+                lastLineAppend(lines, " ");
+                List<String> updates = new ArrayList<>();
+                for (ColumnModel column : values) {
+                    updates.add(column.getColumnName() + " = " + (column == increment
+                            ? versionIncrement(column.getColumnName()) : "VALUES(" + column.getColumnName() + ")"));
+                }
+                if (updates.isEmpty()) {
+                    // 全部欄位 皆為主鍵，資料存在時 不需更新
+                    updates.add(keys.get(0).getColumnName() + " = " + keys.get(0).getColumnName());
+                }
+                appendList(lines, "ON DUPLICATE KEY UPDATE ", updates, "");
+                break;
+            default:
+                lines.add("MERGE INTO " + table.getTableName() + " t ");
+                lines.add("USING " + dialect.getMergeSource() + " s ");
+                List<String> conditions = new ArrayList<>();
+                for (ColumnModel column : keys) {
+                    conditions.add("t." + column.getColumnName() + " = :" + column.getFieldName());
+                }
+                appendList(lines, "ON (", conditions, ") ", " AND ");
+                if (!values.isEmpty()) {
+                    List<String> sets = new ArrayList<>();
+                    for (ColumnModel column : values) {
+                        sets.add(column.getColumnName() + " = " + (column == increment
+                                ? versionIncrement("t." + column.getColumnName()) : ":" + column.getFieldName()));
+                    }
+                    appendList(lines, "WHEN MATCHED THEN UPDATE SET ", sets, " ");
+                }
+                appendList(lines, "WHEN NOT MATCHED THEN INSERT (", columnNames(table.getColumns(), ""), ") ");
+                appendList(lines, "VALUES (", parameterNames(table.getColumns()), ")" + dialect.getMergeTerminator());
+                break;
+        }
+        return lines;
+    }
+
+    /**
+     * 版本欄位 加 1 的 SQL，資料庫中的值 為 NULL 時 以 初始值 0 開始，與 產出程式 的 新版本 一致
+     * @param columnName 欄位名稱 (可含 table 別名)
+     * @return SQL 運算式
+     */
+    private static String versionIncrement(String columnName) {
+        return "COALESCE(" + columnName + " + 1, 0)";
+    }
+
+    /**
+     * 依 主鍵 排序的 分頁查詢 (keyset pagination)，以 上一頁 最後一筆的主鍵 為 起點，不使用 OFFSET <br/>
+     * 主鍵欄位 須 皆為 NOT NULL (NULL 的 比較 結果 不為 true，會 漏掉資料)，否則 拋出 IllegalArgumentException <br/>
+     * 參數：主鍵欄位 (以 欄位名稱 命名) 與 limit
+     * @param table table 定義
+     * @param dialect 資料庫方言，決定 限制筆數 的語法
+     * @param after 是否 從 指定主鍵之後 開始；false 為 第一頁
+     * @return SQL 各行
+     */
+    public static List<String> pageSql(TableModel table, Dialect dialect, boolean after) {
+        return pageSql(table, table.getColumns(), dialect, after);
+    }
+
+    /**
+     * 依 主鍵 排序的 分頁查詢，只查詢 指定的欄位 (用於 projection)
+     * @param table table 定義
+     * @param columns 查詢的欄位
+     * @param dialect 資料庫方言，決定 限制筆數 的語法
+     * @param after 是否 從 指定主鍵之後 開始；false 為 第一頁
+     * @return SQL 各行
+     */
+    public static List<String> pageSql(TableModel table, List<ColumnModel> columns, Dialect dialect, boolean after) {
+        if (!table.isKeysetPageable()) {
+            throw new IllegalArgumentException(table.getTableName() + " 的 主鍵 含 可為 NULL 的欄位，無法 keyset 分頁");
+        }
+        List<ColumnModel> keys = table.getPrimaryKeys();
+        List<String> lines = new ArrayList<>();
+        appendList(lines, "SELECT " + dialect.getLimitPrefix(), columnNames(columns, ""), " ");
+        lines.add("FROM " + table.getTableName() + " ");
+        if (after) {
+            // (k1 > :k1) OR (k1 = :k1 AND k2 > :k2) ...，各資料庫 皆支援 的寫法
+            for (int i = 0; i < keys.size(); i++) {
+                StringBuilder condition = new StringBuilder(i == 0 ? "WHERE (" : "   OR (");
+                for (int j = 0; j < i; j++) {
+                    ColumnModel key = keys.get(j);
+                    condition.append(key.getColumnName()).append(" = :").append(key.getFieldName()).append(" AND ");
+                }
+                ColumnModel key = keys.get(i);
+                condition.append(key.getColumnName()).append(" > :").append(key.getFieldName()).append(") ");
+                lines.add(condition.toString());
+            }
+        }
+        appendList(lines, "ORDER BY ", columnNames(keys, ""), dialect.getLimitSuffix());
+        return lines;
+    }
+
+    /**
+     * 根據 主鍵 查詢 單筆，參數 為 主鍵欄位 (以 欄位名稱 命名)
+     * @param table table 定義
+     * @return SQL 各行
+     */
+    public static List<String> findByKeySql(TableModel table) {
+        List<String> conditions = new ArrayList<>();
+        for (ColumnModel key : table.getPrimaryKeys()) {
+            conditions.add(key.getColumnName() + " = :" + key.getFieldName());
+        }
+        List<String> lines = new ArrayList<>();
+        appendList(lines, "SELECT ", columnNames(table.getColumns(), ""), " ");
+        lines.add("FROM " + table.getTableName() + " ");
+        appendList(lines, "WHERE ", conditions, "", " AND ");
+        return lines;
+    }
+
+    /**
+     * 根據 多個主鍵 查詢，參數 ids 為 主鍵值 清單 <br/>
+     * 單一主鍵：k IN (:ids)；複合主鍵 且 資料庫支援 多欄位 IN：(k1, k2) IN (:ids)，參數 為 Object[] 清單 <br/>
+     * 其他資料庫 只產生 WHERE 之前的部份，由 產出程式 依 主鍵數量 串接 (k1 = :k1_0 AND k2 = :k2_0) OR ...
+     * @param table table 定義
+     * @param dialect 資料庫方言，決定 是否 使用 多欄位 IN
+     * @return SQL 各行
+     */
+    public static List<String> findByKeysSql(TableModel table, Dialect dialect) {
+        List<ColumnModel> keys = table.getPrimaryKeys();
+        List<String> lines = new ArrayList<>();
+        appendList(lines, "SELECT ", columnNames(table.getColumns(), ""), " ");
+        lines.add("FROM " + table.getTableName() + " ");
+        if (keys.size() == 1) {
+            lines.add("WHERE " + keys.get(0).getColumnName() + " IN (:ids)");
+        } else if (dialect.isRowValueIn()) {
+            appendList(lines, "WHERE (", columnNames(keys, ""), ") IN (:ids)");
+        } else {
+            lines.add("WHERE ");
+        }
+        return lines;
+    }
+
+    /**
+     * 查詢 全部資料，不排序，用於 串流輸出
+     * @param table table 定義
+     * @return SQL 各行
+     */
+    public static List<String> selectAllSql(TableModel table) {
+        List<String> lines = new ArrayList<>();
+        appendList(lines, "SELECT ", columnNames(table.getColumns(), ""), " ");
+        lines.add("FROM " + table.getTableName());
+        return lines;
+    }
+
+    /**
+     * 依 主鍵 排序 查詢 全部資料，用於 批次匯出，排序固定 才能 由 中斷的位置 重新啟動 <br/>
+     * 指定 範圍主鍵 時 只查詢 主鍵 介於 兩個參數 (?) 之間 的 資料；無主鍵者 以 全部欄位 排序
+     * @param table table 定義
+     * @param rangeKey 分割範圍 的 主鍵欄位，null 為 不分割
+     * @return SQL 各行
+     */
+    public static List<String> exportSql(TableModel table, ColumnModel rangeKey) {
+        List<String> lines = new ArrayList<>();
+        appendList(lines, "SELECT ", columnNames(table.getColumns(), ""), " ");
+        lines.add("FROM " + table.getTableName() + " ");
+        if (rangeKey != null) {
+            lines.add("WHERE " + rangeKey.getColumnName() + " BETWEEN ? AND ? ");
+        }
+        appendList(lines, "ORDER BY ", columnNames(table.getPrimaryKeys(), ""), "");
+        return lines;
+    }
+
+    private static List<String> columnNames(List<ColumnModel> columns, String prefix) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ColumnModel column : columns) {
+            names.add(prefix + column.getColumnName());
+        }
+        return names;
+    }
+
+    private static List<String> parameterNames(List<ColumnModel> columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ColumnModel column : columns) {
+            names.add(":" + column.getFieldName());
+        }
+        return names;
+    }
+
+    private static void lastLineAppend(List<String> lines, String text) {
+        lines.set(lines.size() - 1, lines.get(lines.size() - 1) + text);
+    }
+
+    private static void appendList(List<String> lines, String prefix, List<String> items, String suffix) {
+        appendList(lines, prefix, items, suffix, ", ");
+    }
+
+    /**
+     * 以 分隔字 串接清單，超過 每行長度 時 換行
+     */
+    private static void appendList(List<String> lines, String prefix, List<String> items, String suffix, String separator) {
+        StringBuilder line = new StringBuilder(prefix);
+        for (int i = 0; i < items.size(); i++) {
+            String item = items.get(i) + (i < items.size() - 1 ? separator : suffix);
+            if (line.length() > prefix.length() && line.length() + item.length() > LINE_WIDTH) {
+                lines.add(line.toString());
+                line.setLength(0);
+                line.append("    ");
+            }
+            line.append(item);
+        }
+        if (items.isEmpty()) {
+            line.append(suffix);
+        }
+        lines.add(line.toString());
+    }
+}